@@ -0,0 +1,21 @@
+package tutorialjdt.handlers;
+
+// Rule ids, ordinal() is what FindingStore records
+public enum Antipattern {
+	THROW_WITHIN_FINALLY("Throw within Finally"),
+	LOG_AND_THROW("Log and Throw"),
+	THROWS_GENERIC("Throws Generic"),
+	THROWS_KITCHEN_SINK("Throws Kitchen Sink"),
+	INCOMPLETE_IMPLEMENTATION("Incomplete Implementation"),
+	NESTED_TRY("Nested Try");
+
+	private final String displayName;
+
+	Antipattern(String displayName) {
+		this.displayName = displayName;
+	}
+
+	public String getDisplayName() {
+		return this.displayName;
+	}
+}
@@ -0,0 +1,77 @@
+package tutorialjdt.handlers;
+
+import java.util.Properties;
+
+public class AntipatternCounts {
+	private int throwWithinFinallyCount = 0;
+	private int logAndThrowCount = 0;
+	private int throwsGenericCount = 0;
+	private int throwsKitchenSinkCount = 0;
+	private int incompleteImplementationCount = 0;
+	private int nestedTryCount = 0;
+
+	public void addThrowWithinFinally(int count) {
+		this.throwWithinFinallyCount += count;
+	}
+
+	public void addLogAndThrow(int count) {
+		this.logAndThrowCount += count;
+	}
+
+	public void addThrowsGeneric(int count) {
+		this.throwsGenericCount += count;
+	}
+
+	public void addThrowsKitchenSink(int count) {
+		this.throwsKitchenSinkCount += count;
+	}
+
+	public void addIncompleteImplementation(int count) {
+		this.incompleteImplementationCount += count;
+	}
+
+	public void addNestedTry(int count) {
+		this.nestedTryCount += count;
+	}
+
+	// Merge the counters of another run (e.g. a shard) into this one
+	public void add(AntipatternCounts other) {
+		this.throwWithinFinallyCount += other.throwWithinFinallyCount;
+		this.logAndThrowCount += other.logAndThrowCount;
+		this.throwsGenericCount += other.throwsGenericCount;
+		this.throwsKitchenSinkCount += other.throwsKitchenSinkCount;
+		this.incompleteImplementationCount += other.incompleteImplementationCount;
+		this.nestedTryCount += other.nestedTryCount;
+	}
+
+	public void print() {
+		System.out.println("Number of 'Throw Within Finally': " + Integer.toString(this.throwWithinFinallyCount));
+		System.out.println("Number of 'Log and Throw': " + Integer.toString(this.logAndThrowCount));
+		System.out.println("Number of 'Throws Generic': " + Integer.toString(this.throwsGenericCount));
+		System.out.println("Number of 'Throws Kitchen Sink': " + Integer.toString(this.throwsKitchenSinkCount));
+		System.out.println("Number of 'Incomplete Implementation': " + Integer.toString(this.incompleteImplementationCount));
+		System.out.println("Number of 'Nested Try': " + Integer.toString(this.nestedTryCount));
+	}
+
+	public Properties toProperties() {
+		Properties properties = new Properties();
+		properties.setProperty("throwWithinFinally", Integer.toString(this.throwWithinFinallyCount));
+		properties.setProperty("logAndThrow", Integer.toString(this.logAndThrowCount));
+		properties.setProperty("throwsGeneric", Integer.toString(this.throwsGenericCount));
+		properties.setProperty("throwsKitchenSink", Integer.toString(this.throwsKitchenSinkCount));
+		properties.setProperty("incompleteImplementation", Integer.toString(this.incompleteImplementationCount));
+		properties.setProperty("nestedTry", Integer.toString(this.nestedTryCount));
+		return properties;
+	}
+
+	public static AntipatternCounts fromProperties(Properties properties) {
+		AntipatternCounts counts = new AntipatternCounts();
+		counts.throwWithinFinallyCount = Integer.parseInt(properties.getProperty("throwWithinFinally", "0"));
+		counts.logAndThrowCount = Integer.parseInt(properties.getProperty("logAndThrow", "0"));
+		counts.throwsGenericCount = Integer.parseInt(properties.getProperty("throwsGeneric", "0"));
+		counts.throwsKitchenSinkCount = Integer.parseInt(properties.getProperty("throwsKitchenSink", "0"));
+		counts.incompleteImplementationCount = Integer.parseInt(properties.getProperty("incompleteImplementation", "0"));
+		counts.nestedTryCount = Integer.parseInt(properties.getProperty("nestedTry", "0"));
+		return counts;
+	}
+}
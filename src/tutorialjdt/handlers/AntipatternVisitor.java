@@ -0,0 +1,47 @@
+package tutorialjdt.handlers;
+
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+
+/**
+ * Common base of the detectors: every finding is recorded in the optional
+ * {@link FindingStore} and, unless disabled, reported on the console. The counters stay
+ * in the subclasses.
+ */
+public abstract class AntipatternVisitor<V extends AntipatternVisitor<V>> extends ASTVisitor {
+	protected final ICompilationUnit unit;
+	private FindingStore findings;
+	private boolean printToConsole = true;
+
+	protected AntipatternVisitor(ICompilationUnit unit) {
+		this.unit = unit;
+	}
+
+	// Build pattern: also record the findings, not just count them
+	@SuppressWarnings("unchecked")
+	public V withFindings(FindingStore findings) {
+		this.findings = findings;
+		return (V) this;
+	}
+
+	// Build pattern: the editor integration only wants the findings, not the console report
+	@SuppressWarnings("unchecked")
+	public V printToConsole(boolean printToConsole) {
+		this.printToConsole = printToConsole;
+		return (V) this;
+	}
+
+	// The console text is only built when it is printed, computing the location reads the source
+	protected void report(Antipattern rule, ASTNode node, Supplier<String> consoleMessage) {
+		if (findings != null) {
+			findings.add(rule, unit, node);
+		}
+		if (printToConsole) {
+			System.out.println(consoleMessage.get());
+			System.out.println("----");
+		}
+	}
+}
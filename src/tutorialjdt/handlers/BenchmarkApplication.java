@@ -0,0 +1,215 @@
+package tutorialjdt.handlers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+
+/**
+ * Headless end-to-end benchmark: generates synthetic projects of increasing size,
+ * imports each into the workspace, runs the full analysis and reports wall time,
+ * throughput, peak heap and GC time as JSON so runs can be compared. Every size is run once
+ * per parse tier: "auto" picks the signature-only parse where it suffices, "full" always
+ * parses the bodies, so the two tiers are measured on the same units.
+ *
+ * eclipse -nosplash -application tutorialjdt.benchmark -data /tmp/bench-ws -sizes 1000,10000,100000 -density 0.2 -parseTiers auto,full -output bench.json
+ */
+public class BenchmarkApplication implements IApplication {
+	private static final String PARSE_TIER_AUTO = "auto";
+	private static final String PARSE_TIER_FULL = "full";
+
+	@Override
+	public Object start(IApplicationContext context) throws Exception {
+		String[] args = (String[]) context.getArguments().get(IApplicationContext.APPLICATION_ARGS);
+		String sizes = "1000,10000,100000";
+		String parseTiers = PARSE_TIER_AUTO + "," + PARSE_TIER_FULL;
+		double density = 0.2;
+		int warmupUnits = 500;
+		boolean quiet = true;
+		Path workDirectory = null;
+		Path outputFile = null;
+
+		for (int i = 0; i < args.length - 1; i++) {
+			if ("-sizes".equals(args[i])) {
+				sizes = args[++i];
+			} else if ("-parseTiers".equals(args[i])) {
+				parseTiers = args[++i];
+			} else if ("-density".equals(args[i])) {
+				density = Double.parseDouble(args[++i]);
+			} else if ("-warmup".equals(args[i])) {
+				warmupUnits = Integer.parseInt(args[++i]);
+			} else if ("-quiet".equals(args[i])) {
+				quiet = Boolean.parseBoolean(args[++i]);
+			} else if ("-workDir".equals(args[i])) {
+				workDirectory = Paths.get(args[++i]);
+			} else if ("-output".equals(args[i])) {
+				outputFile = Paths.get(args[++i]);
+			}
+		}
+		if (workDirectory == null) {
+			workDirectory = Files.createTempDirectory("tutorialjdt-benchmark");
+		}
+
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		HeadlessWorkspace.disableAutoBuilding(workspace);
+
+		List<String> tiers = new ArrayList<>();
+		for (String tier : parseTiers.split(",")) {
+			tier = tier.trim();
+			if (!PARSE_TIER_AUTO.equals(tier) && !PARSE_TIER_FULL.equals(tier)) {
+				throw new IllegalArgumentException("Unknown parse tier " + tier + ", expected " + PARSE_TIER_AUTO + " or " + PARSE_TIER_FULL);
+			}
+			tiers.add(tier);
+		}
+
+		if (warmupUnits > 0) {
+			System.out.println("Warm-up with " + warmupUnits + " units");
+			for (String tier : tiers) {
+				runSize(workspace, workDirectory, warmupUnits, density, quiet, tier);
+			}
+		}
+
+		List<String> results = new ArrayList<>();
+		for (String size : sizes.split(",")) {
+			int units = Integer.parseInt(size.trim());
+			for (String tier : tiers) {
+				System.out.println("Benchmarking " + units + " units, parse tier " + tier);
+				String result = runSize(workspace, workDirectory, units, density, quiet, tier);
+				System.out.println(result);
+				results.add(result);
+			}
+		}
+
+		String json = "{\n"
+				+ "  \"timestamp\": \"" + Instant.now() + "\",\n"
+				+ "  \"javaVersion\": \"" + System.getProperty("java.version") + "\",\n"
+				+ "  \"availableProcessors\": " + Runtime.getRuntime().availableProcessors() + ",\n"
+				+ "  \"maxHeapBytes\": " + Runtime.getRuntime().maxMemory() + ",\n"
+				+ "  \"density\": " + density + ",\n"
+				+ "  \"results\": [\n    " + String.join(",\n    ", results) + "\n  ]\n"
+				+ "}\n";
+		if (outputFile != null) {
+			Files.writeString(outputFile, json);
+			System.out.println("Results written to " + outputFile);
+		} else {
+			System.out.println(json);
+		}
+
+		workspace.save(true, null);
+		return IApplication.EXIT_OK;
+	}
+
+	// The generator is seeded, so every tier gets the same units
+	private String runSize(IWorkspace workspace, Path workDirectory, int units, double density, boolean quiet, String parseTier) throws Exception {
+		String projectName = "synthetic-" + units;
+		Path projectDirectory = workDirectory.resolve(projectName);
+		deleteDirectory(projectDirectory);
+		int antipatternUnits = new SyntheticWorkspaceGenerator().units(units).antipatternDensity(density).generate(projectDirectory, projectName);
+
+		IProject project = HeadlessWorkspace.importProject(workspace, projectDirectory.toString());
+		IJavaProject javaProject = JavaCore.create(project);
+		HeadlessWorkspace.waitForIndexer(javaProject);
+		CompilationUnitAnalyzer analyzer = new CompilationUnitAnalyzer().fullParse(PARSE_TIER_FULL.equals(parseTier));
+
+		System.gc();
+		List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+				heapPools.add(pool);
+			}
+		}
+		long gcTimeBefore = gcTime();
+		long gcCountBefore = gcCount();
+
+		// The console report would dominate the timing, so drop it unless asked for
+		PrintStream console = System.out;
+		if (quiet) {
+			System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+		}
+		long start = System.nanoTime();
+		try {
+			analyzer.analyzeJavaProject(javaProject);
+		} finally {
+			System.setOut(console);
+		}
+		long wallTimeNanos = System.nanoTime() - start;
+
+		long gcTimeMs = gcTime() - gcTimeBefore;
+		long gcCount = gcCount() - gcCountBefore;
+		// Sum of the per-pool peaks, an upper bound of the real peak
+		long peakHeapBytes = 0;
+		for (MemoryPoolMXBean pool : heapPools) {
+			peakHeapBytes += pool.getPeakUsage().getUsed();
+		}
+
+		// Keep the generated files, only remove the project from the workspace
+		project.delete(false, true, null);
+
+		double seconds = wallTimeNanos / 1e9;
+		return "{\"units\": " + units
+				+ ", \"parseTier\": \"" + parseTier + "\""
+				+ ", \"antipatternUnits\": " + antipatternUnits
+				+ ", \"wallTimeMs\": " + (wallTimeNanos / 1_000_000)
+				+ ", \"unitsPerSecond\": " + String.format(Locale.ROOT, "%.1f", units / seconds)
+				+ ", \"peakHeapBytes\": " + peakHeapBytes
+				+ ", \"gcTimeMs\": " + gcTimeMs
+				+ ", \"gcCount\": " + gcCount
+				+ ", \"parsedUnits\": " + analyzer.getParsedUnits()
+				+ ", \"signatureOnlyUnits\": " + analyzer.getSignatureOnlyUnits()
+				+ ", \"skippedUnits\": " + analyzer.getSkippedUnits()
+				+ ", \"findings\": " + analyzer.getFindings().size() + "}";
+	}
+
+	private static long gcTime() {
+		long total = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			total += Math.max(0, gc.getCollectionTime());
+		}
+		return total;
+	}
+
+	private static long gcCount() {
+		long total = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			total += Math.max(0, gc.getCollectionCount());
+		}
+		return total;
+	}
+
+	private static void deleteDirectory(Path directory) throws IOException {
+		if (!Files.exists(directory)) {
+			return;
+		}
+		try (Stream<Path> paths = Files.walk(directory)) {
+			for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	@Override
+	public void stop() {
+		// nothing to do
+	}
+}
@@ -0,0 +1,170 @@
+package tutorialjdt.handlers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
+import org.eclipse.jdt.core.dom.rewrite.ImportRewrite;
+import org.eclipse.ltk.core.refactoring.Change;
+import org.eclipse.ltk.core.refactoring.CompositeChange;
+import org.eclipse.ltk.core.refactoring.PerformChangeOperation;
+import org.eclipse.ltk.core.refactoring.RefactoringCore;
+import org.eclipse.ltk.core.refactoring.RefactoringStatus;
+import org.eclipse.ltk.core.refactoring.TextFileChange;
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.TextEdit;
+
+/**
+ * Computes ASTRewrite fixes for 'Throws Generic' and 'Incomplete Implementation' in
+ * parallel, one task per compilation unit, and applies all of them as a single
+ * refactoring change: one workspace operation, one build, one undo.
+ */
+public class BulkFixEngine {
+	public static final String CHANGE_NAME = "Bulk Fix Anti-patterns";
+
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private boolean narrowOverridable = false;
+	private final AtomicInteger throwsGenericFixes = new AtomicInteger();
+	private final AtomicInteger incompleteImplementationFixes = new AtomicInteger();
+	private final AtomicInteger incompleteImplementationSkipped = new AtomicInteger();
+
+	// Build pattern to define the engine with multiple parameters
+	public BulkFixEngine threads(int threads) {
+		this.threads = threads;
+		return this;
+	}
+
+	public BulkFixEngine narrowOverridable(boolean narrowOverridable) {
+		this.narrowOverridable = narrowOverridable;
+		return this;
+	}
+
+	public int getThrowsGenericFixes() {
+		return this.throwsGenericFixes.get();
+	}
+
+	public int getIncompleteImplementationFixes() {
+		return this.incompleteImplementationFixes.get();
+	}
+
+	// Left as they are, the rethrow would make the code after the try unreachable
+	public int getIncompleteImplementationSkipped() {
+		return this.incompleteImplementationSkipped.get();
+	}
+
+	// One change per unit that has something to fix, in the order of the units
+	public List<TextFileChange> computeFixes(List<ICompilationUnit> units, IProgressMonitor monitor) throws InterruptedException {
+		SubMonitor progress = SubMonitor.convert(monitor, "Computing fixes", units.size());
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<TextFileChange> changes = new ArrayList<>();
+		try {
+			List<Future<TextFileChange>> futures = new ArrayList<>();
+			for (ICompilationUnit unit : units) {
+				futures.add(executor.submit(() -> computeFix(unit)));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				progress.split(1); // Throws OperationCanceledException when canceled
+				try {
+					TextFileChange change = futures.get(i).get();
+					if (change != null) {
+						changes.add(change);
+					}
+				} catch (ExecutionException e) {
+					System.out.println("Could not compute fixes for " + units.get(i).getElementName());
+					e.getCause().printStackTrace();
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return changes;
+	}
+
+	private TextFileChange computeFix(ICompilationUnit unit) throws CoreException {
+		String source = unit.getSource();
+		if (source == null || !(unit.getResource() instanceof IFile)) {
+			return null;
+		}
+		String sourceLevel = unit.getJavaProject().getOption(JavaCore.COMPILER_SOURCE, true);
+		LexicalPrefilter prefilter = LexicalPrefilter.scan(source.toCharArray(), sourceLevel);
+		if (!prefilter.canMethodDeclarationVisitorFire() && !prefilter.canIncompleteImplementationFire()) {
+			return null;
+		}
+
+		// Narrowing needs the bindings of everything the bodies call
+	    ASTParser parser = ASTParser.newParser(AST.JLS22);
+	    parser.setSource(unit);
+	    parser.setKind(ASTParser.K_COMPILATION_UNIT);
+		parser.setResolveBindings(true);
+		parser.setBindingsRecovery(true);
+		parser.setStatementsRecovery(true);
+	    CompilationUnit astRoot = (CompilationUnit) parser.createAST(null);
+
+		ASTRewrite rewrite = ASTRewrite.create(astRoot.getAST());
+		ImportRewrite importRewrite = ImportRewrite.create(astRoot, true);
+		int fixes = 0;
+
+		if (prefilter.canMethodDeclarationVisitorFire()) {
+			NarrowThrowsFixVisitor narrowVisitor = new NarrowThrowsFixVisitor(rewrite, importRewrite).narrowOverridable(narrowOverridable);
+			astRoot.accept(narrowVisitor);
+			throwsGenericFixes.addAndGet(narrowVisitor.getFixCount());
+			fixes += narrowVisitor.getFixCount();
+		}
+
+		if (prefilter.canIncompleteImplementationFire()) {
+			RethrowFixVisitor rethrowVisitor = new RethrowFixVisitor(rewrite, astRoot, source);
+			astRoot.accept(rethrowVisitor);
+			incompleteImplementationFixes.addAndGet(rethrowVisitor.getFixCount());
+			incompleteImplementationSkipped.addAndGet(rethrowVisitor.getSkippedCount());
+			fixes += rethrowVisitor.getFixCount();
+		}
+
+		if (fixes == 0) {
+			return null;
+		}
+
+		MultiTextEdit edit = new MultiTextEdit();
+		edit.addChild(rewrite.rewriteAST());
+		TextEdit importEdit = importRewrite.rewriteImports(null);
+		if (importEdit.hasChildren()) {
+			edit.addChild(importEdit);
+		}
+
+		TextFileChange change = new TextFileChange(unit.getElementName(), (IFile) unit.getResource());
+		change.setEdit(edit);
+		return change;
+	}
+
+	// Applies all changes in one workspace operation, undoable as a whole via Edit > Undo
+	public boolean apply(List<TextFileChange> changes, IProgressMonitor monitor) throws CoreException {
+		CompositeChange composite = new CompositeChange(CHANGE_NAME, changes.toArray(new Change[0]));
+		composite.initializeValidationData(monitor);
+
+		PerformChangeOperation operation = new PerformChangeOperation(composite);
+		operation.setUndoManager(RefactoringCore.getUndoManager(), CHANGE_NAME);
+		operation.run(monitor);
+
+		// e.g. a file changed on disk since the fixes were computed
+		RefactoringStatus validation = operation.getValidationStatus();
+		if (validation != null && validation.hasFatalError()) {
+			throw new CoreException(new Status(IStatus.ERROR, "tutorialjdt", validation.getEntryWithHighestSeverity().getMessage()));
+		}
+		return operation.changeExecuted();
+	}
+}
@@ -0,0 +1,77 @@
+package tutorialjdt.handlers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.ltk.core.refactoring.TextFileChange;
+
+public class BulkFixHandler extends AbstractHandler {
+	// Also narrow "throws Exception" on methods subclasses could override
+	public static final String NARROW_OVERRIDABLE_PROPERTY = "tutorialjdt.fix.narrowOverridable";
+
+	@Override
+	public Object execute(ExecutionEvent event) throws ExecutionException {
+		// Computing the fixes resolves bindings in every unit, keep the UI responsive
+		Job job = Job.create(BulkFixEngine.CHANGE_NAME, monitor -> {
+			SubMonitor progress = SubMonitor.convert(monitor, 10);
+			List<ICompilationUnit> units = collectUnits();
+
+			BulkFixEngine engine = new BulkFixEngine().narrowOverridable(Boolean.getBoolean(NARROW_OVERRIDABLE_PROPERTY));
+			try {
+				List<TextFileChange> changes = engine.computeFixes(units, progress.split(7));
+				System.out.println("Fixes computed: 'Throws Generic': " + engine.getThrowsGenericFixes()
+						+ ", 'Incomplete Implementation': " + engine.getIncompleteImplementationFixes()
+						+ " in " + changes.size() + " of " + units.size() + " compilation units");
+				if (engine.getIncompleteImplementationSkipped() > 0) {
+					System.out.println("'Incomplete Implementation' not fixable (the try could no longer complete normally): "
+							+ engine.getIncompleteImplementationSkipped());
+				}
+				if (!changes.isEmpty() && engine.apply(changes, progress.split(3))) {
+					System.out.println("Fixes applied, undo with Edit > Undo " + BulkFixEngine.CHANGE_NAME);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new OperationCanceledException("Computing the fixes was interrupted");
+			}
+
+			System.out.println("Finish");
+		});
+		job.setUser(true);
+		job.schedule();
+
+		return null;
+	}
+
+	private static List<ICompilationUnit> collectUnits() {
+		List<ICompilationUnit> units = new ArrayList<>();
+		for (IProject project : ResourcesPlugin.getWorkspace().getRoot().getProjects()) {
+			try {
+				if (project.isOpen() && project.hasNature(JavaCore.NATURE_ID)) {
+					for (IPackageFragment pkg : JavaCore.create(project).getPackageFragments()) {
+						if (pkg.getKind() == IPackageFragmentRoot.K_SOURCE) { // Only source packages
+							units.addAll(Arrays.asList(pkg.getCompilationUnits()));
+						}
+					}
+				}
+			} catch (CoreException e) {
+				e.printStackTrace();
+			}
+		}
+		return units;
+	}
+
+}
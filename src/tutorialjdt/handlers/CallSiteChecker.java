@@ -0,0 +1,152 @@
+package tutorialjdt.handlers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
+import org.eclipse.jdt.core.dom.CatchClause;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.Initializer;
+import org.eclipse.jdt.core.dom.LambdaExpression;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.NodeFinder;
+import org.eclipse.jdt.core.dom.TryStatement;
+import org.eclipse.jdt.core.dom.Type;
+import org.eclipse.jdt.core.dom.UnionType;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchParticipant;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.SearchRequestor;
+
+/**
+ * Checks the call sites of a method before its throws clause is narrowed: a caller that
+ * catches a checked exception the method no longer throws ("catch (IOException e)" around
+ * a call that only throws SQLException) would stop compiling with an unreachable catch
+ * block. Conservative: anything that can't be checked counts as a breaking caller.
+ */
+public class CallSiteChecker {
+	private final Map<ICompilationUnit, CompilationUnit> asts = new HashMap<>();
+
+	// astRoot is reused for the calls in its own unit instead of parsing it again
+	public CallSiteChecker(CompilationUnit astRoot) {
+		if (astRoot.getJavaElement() instanceof ICompilationUnit) {
+			asts.put((ICompilationUnit) astRoot.getJavaElement(), astRoot);
+		}
+	}
+
+	// True when every call site still compiles once the method only throws the given types
+	public boolean callersStillCompile(IMethodBinding method, List<ITypeBinding> thrown) {
+		IJavaElement element = method.getJavaElement();
+		if (!(element instanceof IMethod)) {
+			return false;
+		}
+
+		List<SearchMatch> matches = new ArrayList<>();
+		try {
+			SearchPattern pattern = SearchPattern.createPattern(element, IJavaSearchConstants.REFERENCES);
+			new SearchEngine().search(pattern, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() },
+					SearchEngine.createWorkspaceScope(), new SearchRequestor() {
+						@Override
+						public void acceptSearchMatch(SearchMatch match) {
+							matches.add(match);
+						}
+					}, null);
+		} catch (CoreException e) {
+			e.printStackTrace();
+			return false;
+		}
+
+		for (SearchMatch match : matches) {
+			if (match.isInsideDocComment()) {
+				continue;
+			}
+			if (match.getAccuracy() != SearchMatch.A_ACCURATE || !(match.getElement() instanceof IJavaElement)) {
+				return false;
+			}
+			ICompilationUnit unit = (ICompilationUnit) ((IJavaElement) match.getElement()).getAncestor(IJavaElement.COMPILATION_UNIT);
+			if (unit == null) {
+				continue; // class files aren't compiled again
+			}
+			ASTNode call = NodeFinder.perform(ast(unit), match.getOffset(), match.getLength());
+			if (call == null || !catchesStillReachable(call, thrown)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private CompilationUnit ast(ICompilationUnit unit) {
+		return asts.computeIfAbsent(unit, key -> {
+		    ASTParser parser = ASTParser.newParser(AST.JLS22);
+		    parser.setSource(key);
+		    parser.setKind(ASTParser.K_COMPILATION_UNIT);
+			parser.setResolveBindings(true);
+			parser.setBindingsRecovery(true);
+			return (CompilationUnit) parser.createAST(null);
+		});
+	}
+
+	// Every enclosing try whose block contains the call must still be able to throw what it catches
+	private static boolean catchesStillReachable(ASTNode call, List<ITypeBinding> thrown) {
+		ASTNode child = call;
+		for (ASTNode parent = call.getParent(); parent != null; child = parent, parent = parent.getParent()) {
+			// Exceptions don't propagate out of these to the surrounding code
+			if (parent instanceof MethodDeclaration || parent instanceof LambdaExpression || parent instanceof Initializer
+					|| parent instanceof AbstractTypeDeclaration || parent instanceof AnonymousClassDeclaration) {
+				return true;
+			}
+			if (parent instanceof TryStatement && child.getLocationInParent() != TryStatement.FINALLY_PROPERTY && !(child instanceof CatchClause)) {
+				for (Object obj : ((TryStatement) parent).catchClauses()) {
+					for (ITypeBinding caught : caughtTypes((CatchClause) obj)) {
+						if (caught == null || (isChecked(caught) && !isRelated(caught, thrown))) {
+							return false;
+						}
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	private static List<ITypeBinding> caughtTypes(CatchClause catchClause) {
+		List<ITypeBinding> types = new ArrayList<>();
+		Type type = catchClause.getException().getType();
+		if (type instanceof UnionType) {
+			for (Object alternative : ((UnionType) type).types()) {
+				types.add(((Type) alternative).resolveBinding());
+			}
+		} else {
+			types.add(type.resolveBinding());
+		}
+		return types;
+	}
+
+	// Exception and Throwable may always be caught, they include the unchecked exceptions
+	private static boolean isChecked(ITypeBinding type) {
+		String name = type.getQualifiedName();
+		return !ThrownExceptionCollector.isUnchecked(type) && !"java.lang.Exception".equals(name) && !"java.lang.Throwable".equals(name);
+	}
+
+	private static boolean isRelated(ITypeBinding caught, List<ITypeBinding> thrown) {
+		for (ITypeBinding type : thrown) {
+			if (type.isSubTypeCompatible(caught) || caught.isSubTypeCompatible(type)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,160 @@
+package tutorialjdt.handlers;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+public class CompilationUnitAnalyzer {
+	private AntipatternCounts counts = new AntipatternCounts();
+	private FindingStore findings = new FindingStore();
+	private int shardIndex = 0;
+	private int shardCount = 1;
+	private int parsedUnits = 0;
+	private int signatureOnlyUnits = 0;
+	private int skippedUnits = 0;
+	private boolean fullParse = false;
+
+	// Build pattern: only analyze the units that fall into the given shard
+	public CompilationUnitAnalyzer shard(int shardIndex, int shardCount) {
+		this.shardIndex = shardIndex;
+		this.shardCount = shardCount;
+		return this;
+	}
+
+	// Build pattern: parse every unit with bodies and bindings, even if only declaration-level
+	// rules can fire, e.g. to compare the tiers in the benchmark
+	public CompilationUnitAnalyzer fullParse(boolean fullParse) {
+		this.fullParse = fullParse;
+		return this;
+	}
+
+	public AntipatternCounts getCounts() {
+		return this.counts;
+	}
+
+	public FindingStore getFindings() {
+		return this.findings;
+	}
+
+	public int getParsedUnits() {
+		return this.parsedUnits;
+	}
+
+	// Units parsed without method bodies, included in getParsedUnits()
+	public int getSignatureOnlyUnits() {
+		return this.signatureOnlyUnits;
+	}
+
+	// Units the lexical pre-filter ruled out without parsing
+	public int getSkippedUnits() {
+		return this.skippedUnits;
+	}
+
+	// Stable across JVMs: String.hashCode() is specified, and the workspace-relative
+	// path is the same in every shard workspace
+	public static int shardOf(ICompilationUnit unit, int shardCount) {
+		return Math.floorMod(unit.getPath().toString().hashCode(), shardCount);
+	}
+
+	public void analyzeJavaProject(IJavaProject javaProject) {
+	    try {
+	        for (IPackageFragment pkg : javaProject.getPackageFragments()) {
+	            if (pkg.getKind() == IPackageFragmentRoot.K_SOURCE) { // Only source packages
+	            	System.out.println("  Package: " + pkg.getElementName());
+	                analyzePackage(pkg);
+	            }
+	        }
+	    } catch (JavaModelException e) {
+	        e.printStackTrace();
+	    }
+	}
+
+	public void analyzePackage(IPackageFragment pkg) {
+	    try {
+	        for (ICompilationUnit unit : pkg.getCompilationUnits()) {
+	        	if (shardCount > 1 && shardOf(unit, shardCount) != shardIndex) {
+	        		continue;
+	        	}
+	            analyzeCompilationUnit(unit);
+	        }
+	    } catch (JavaModelException e) {
+	        e.printStackTrace();
+	    }
+	}
+
+	public void analyzeCompilationUnit(ICompilationUnit unit) {
+		// System.out.println("    Compilation Unit: " + unit.getElementName());
+		String source = getSource(unit);
+		LexicalPrefilter prefilter = prefilter(unit, source);
+		if (!prefilter.canAnyDetectorFire()) {
+			this.skippedUnits += 1;
+			return;
+		}
+		this.parsedUnits += 1;
+
+	    ASTParser parser = ASTParser.newParser(AST.JLS22);
+	    parser.setSource(unit);
+	    parser.setKind(ASTParser.K_COMPILATION_UNIT);
+	    if (fullParse || prefilter.needsMethodBodies()) {
+	    	parser.setResolveBindings(true);
+	    	parser.setBindingsRecovery(true);
+	    	parser.setStatementsRecovery(true);
+	    } else {
+	    	// Only declaration-level rules left: skip the bodies and the bindings,
+	    	// MethodDeclarationVisitor only reads the thrown types as written, and the
+	    	// prefilter saw no 'throws' that could be inside a body
+	    	parser.setIgnoreMethodBodies(true);
+	    	this.signatureOnlyUnits += 1;
+	    }
+
+	    CompilationUnit astRoot = (CompilationUnit) parser.createAST(null); // Parse the code
+
+	    // Only run the detectors whose keywords occur in the unit
+	    if (prefilter.canTryVisitorFire()) {
+	    	TryVisitor tryVisitor = new TryVisitor(unit).withFindings(findings);
+	    	astRoot.accept(tryVisitor);
+	    	this.counts.addThrowWithinFinally(tryVisitor.getThrowWithinFinallyCount());
+	    	this.counts.addLogAndThrow(tryVisitor.getLogAndThrowCount());
+	    }
+
+	    if (prefilter.canMethodDeclarationVisitorFire()) {
+	    	MethodDeclarationVisitor methodVisitor = new MethodDeclarationVisitor(unit).withFindings(findings);
+	    	astRoot.accept(methodVisitor);
+	    	this.counts.addThrowsGeneric(methodVisitor.getThrowsGenericCount());
+	    	this.counts.addThrowsKitchenSink(methodVisitor.getThrowsKitchenSinkCount());
+	    }
+
+	    if (prefilter.canIncompleteImplementationFire()) {
+	    	IncompleteImplementationVisitor incompleteVisitor = new IncompleteImplementationVisitor(unit, astRoot, source).withFindings(findings);
+	    	astRoot.accept(incompleteVisitor);
+	    	this.counts.addIncompleteImplementation(incompleteVisitor.getIncompleteImplementationCount());
+	    }
+
+	    if (prefilter.canNestedTryFire()) {
+	    	NestedTryVisitor nestVisitor = new NestedTryVisitor(unit).withFindings(findings);
+	    	astRoot.accept(nestVisitor);
+	    	this.counts.addNestedTry(nestVisitor.getNestedTryCount());
+	    }
+	}
+
+	// Read once per unit, shared by the prefilter and the detectors
+	private static String getSource(ICompilationUnit unit) {
+		try {
+			return unit.getSource();
+		} catch (JavaModelException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	private static LexicalPrefilter prefilter(ICompilationUnit unit, String source) {
+		String sourceLevel = unit.getJavaProject().getOption(JavaCore.COMPILER_SOURCE, true);
+		return LexicalPrefilter.scan(source == null ? null : source.toCharArray(), sourceLevel);
+	}
+}
@@ -0,0 +1,172 @@
+package tutorialjdt.handlers;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.ui.JavaUI;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.source.Annotation;
+import org.eclipse.jface.text.source.IAnnotationModel;
+import org.eclipse.jface.text.source.IAnnotationModelExtension;
+import org.eclipse.ui.part.FileEditorInput;
+
+/**
+ * As-you-type detection: listens to the reconcile events of open Java editors and shows
+ * the findings as annotations. Each reconcile is debounced per unit and handed to an
+ * {@link IncrementalUnitAnalyzer}, which only re-analyzes the edited method.
+ */
+public class EditorDetection implements IElementChangedListener {
+	public static final String ANNOTATION_TYPE = "tutorialjdt.antipatternAnnotation";
+
+	// Coalesces reconciles that arrive in bursts, short enough to stay unnoticed
+	private static final long DEBOUNCE_MS = 20;
+
+	private static EditorDetection instance;
+
+	private final Map<ICompilationUnit, UnitState> states = new ConcurrentHashMap<>();
+
+	public static synchronized void install() {
+		if (instance == null) {
+			instance = new EditorDetection();
+			JavaCore.addElementChangedListener(instance, ElementChangedEvent.POST_RECONCILE | ElementChangedEvent.POST_CHANGE);
+		}
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		IJavaElementDelta delta = event.getDelta();
+		if (event.getType() == ElementChangedEvent.POST_RECONCILE) {
+			if (delta.getElement() instanceof ICompilationUnit) {
+				reconciled((ICompilationUnit) delta.getElement(), delta.getCompilationUnitAST());
+			}
+		} else {
+			discardClosed(delta);
+		}
+	}
+
+	private void reconciled(ICompilationUnit unit, CompilationUnit astRoot) {
+		// Only editors on the real files, not refactoring previews and other working copies
+		if (unit.getOwner() != null || !(unit.getResource() instanceof IFile)) {
+			return;
+		}
+		String source;
+		try {
+			source = unit.getSource();
+		} catch (JavaModelException e) {
+			e.printStackTrace();
+			return;
+		}
+		// The reconcile AST is only usable if it still matches the buffer
+		if (astRoot != null && astRoot.getStartPosition() + astRoot.getLength() != source.length()) {
+			astRoot = null;
+		}
+		states.computeIfAbsent(unit, UnitState::new).schedule(astRoot, source);
+	}
+
+	// Forget units whose editor was closed (the working copy was discarded)
+	private void discardClosed(IJavaElementDelta delta) {
+		if (delta.getElement() instanceof ICompilationUnit) {
+			ICompilationUnit unit = (ICompilationUnit) delta.getElement();
+			if ((delta.getFlags() & IJavaElementDelta.F_PRIMARY_WORKING_COPY) != 0 && !unit.isWorkingCopy()) {
+				UnitState state = states.remove(unit);
+				if (state != null) {
+					state.job.cancel();
+				}
+			}
+			return;
+		}
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			discardClosed(child);
+		}
+	}
+
+	private static class UnitState {
+		private final ICompilationUnit unit;
+		private final IncrementalUnitAnalyzer analyzer;
+		private final Job job;
+		private CompilationUnit pendingAst;
+		private String pendingSource;
+		private Annotation[] annotations = new Annotation[0];
+
+		UnitState(ICompilationUnit unit) {
+			this.unit = unit;
+			this.analyzer = new IncrementalUnitAnalyzer(unit);
+			this.job = Job.create("Anti-pattern detection: " + unit.getElementName(), monitor -> run());
+			this.job.setSystem(true);
+			this.job.setPriority(Job.SHORT);
+		}
+
+		synchronized void schedule(CompilationUnit astRoot, String source) {
+			this.pendingAst = astRoot;
+			this.pendingSource = source;
+			// Restarts the delay; a running job is scheduled again once it is done
+			job.cancel();
+			job.schedule(DEBOUNCE_MS);
+		}
+
+		private void run() {
+			CompilationUnit astRoot;
+			String source;
+			synchronized (this) {
+				astRoot = pendingAst;
+				source = pendingSource;
+				pendingAst = null;
+				pendingSource = null;
+			}
+			if (source == null) {
+				return;
+			}
+			if (astRoot == null) {
+				astRoot = parse(source);
+			}
+			updateAnnotations(analyzer.update(astRoot, source));
+		}
+
+		// The detectors don't need bindings, a plain parse is enough
+		private CompilationUnit parse(String source) {
+		    ASTParser parser = ASTParser.newParser(AST.JLS22);
+		    parser.setSource(source.toCharArray());
+		    parser.setKind(ASTParser.K_COMPILATION_UNIT);
+			parser.setCompilerOptions(unit.getJavaProject().getOptions(true));
+			parser.setStatementsRecovery(true);
+			return (CompilationUnit) parser.createAST(null);
+		}
+
+		private void updateAnnotations(FindingStore findings) {
+			IAnnotationModel model = JavaUI.getDocumentProvider().getAnnotationModel(new FileEditorInput((IFile) unit.getResource()));
+			if (model == null) {
+				return; // editor closed in the meantime
+			}
+
+			Map<Annotation, Position> added = new HashMap<>();
+			for (int row = 0; row < findings.size(); row++) {
+				String text = "'" + findings.getRule(row).getDisplayName() + "' anti-pattern detected";
+				added.put(new Annotation(ANNOTATION_TYPE, false, text), new Position(findings.getOffset(row), findings.getLength(row)));
+			}
+
+			if (model instanceof IAnnotationModelExtension) {
+				((IAnnotationModelExtension) model).replaceAnnotations(annotations, added);
+			} else {
+				for (Annotation annotation : annotations) {
+					model.removeAnnotation(annotation);
+				}
+				for (Map.Entry<Annotation, Position> entry : added.entrySet()) {
+					model.addAnnotation(entry.getKey(), entry.getValue());
+				}
+			}
+			annotations = added.keySet().toArray(new Annotation[0]);
+		}
+	}
+}
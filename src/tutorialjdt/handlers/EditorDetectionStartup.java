@@ -0,0 +1,12 @@
+package tutorialjdt.handlers;
+
+import org.eclipse.ui.IStartup;
+
+// Registers the as-you-type detection when the workbench starts
+public class EditorDetectionStartup implements IStartup {
+
+	@Override
+	public void earlyStartup() {
+		EditorDetection.install();
+	}
+}
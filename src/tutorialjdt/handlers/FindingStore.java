@@ -0,0 +1,300 @@
+package tutorialjdt.handlers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+/**
+ * Column store for findings: one row per finding, one primitive array per field.
+ * Files and package/project names are interned in symbol tables, so a finding costs a
+ * few ints instead of an object graph with its own strings. The message is the rule's
+ * display name, so it isn't stored per finding.
+ */
+public class FindingStore {
+	private static final int MAGIC = 0x46494E44; // "FIND"
+	private static final int VERSION = 2;
+
+	private final SymbolTable files = new SymbolTable();
+	private final SymbolTable names = new SymbolTable(); // packages and projects
+
+	// Per file id
+	private int[] fileProject = new int[16];
+	private int[] filePackage = new int[16];
+
+	// Per finding row
+	private int size = 0;
+	private byte[] rules = new byte[64];
+	private int[] fileIds = new int[64];
+	private int[] offsets = new int[64];
+	private int[] lengths = new int[64];
+	private int[] lines = new int[64];
+
+	public int add(Antipattern rule, String project, String pkg, String path, int offset, int length, int line) {
+		int fileId = internFile(project, pkg, path);
+		return addRow((byte) rule.ordinal(), fileId, offset, length, line);
+	}
+
+	// Convenience for the visitors: location comes from the node, line from the AST
+	public int add(Antipattern rule, ICompilationUnit unit, ASTNode node) {
+		int line = node.getRoot() instanceof CompilationUnit ? ((CompilationUnit) node.getRoot()).getLineNumber(node.getStartPosition()) : -1;
+		return add(rule, unit.getJavaProject().getElementName(), unit.getParent().getElementName(), unit.getPath().toString(),
+				node.getStartPosition(), node.getLength(), line);
+	}
+
+	private int internFile(String project, String pkg, String path) {
+		int fileId = files.intern(path);
+		if (fileId >= fileProject.length) {
+			fileProject = Arrays.copyOf(fileProject, fileProject.length * 2);
+			filePackage = Arrays.copyOf(filePackage, filePackage.length * 2);
+		}
+		fileProject[fileId] = names.intern(project);
+		filePackage[fileId] = names.intern(pkg);
+		return fileId;
+	}
+
+	private int addRow(byte rule, int fileId, int offset, int length, int line) {
+		if (size == rules.length) {
+			int capacity = size * 2;
+			rules = Arrays.copyOf(rules, capacity);
+			fileIds = Arrays.copyOf(fileIds, capacity);
+			offsets = Arrays.copyOf(offsets, capacity);
+			lengths = Arrays.copyOf(lengths, capacity);
+			lines = Arrays.copyOf(lines, capacity);
+		}
+		rules[size] = rule;
+		fileIds[size] = fileId;
+		offsets[size] = offset;
+		lengths[size] = length;
+		lines[size] = line;
+		return size++;
+	}
+
+	// Merge another store (e.g. from a shard), remapping its symbol ids
+	public void addAll(FindingStore other) {
+		for (int row = 0; row < other.size; row++) {
+			int otherFile = other.fileIds[row];
+			int fileId = internFile(other.names.get(other.fileProject[otherFile]), other.names.get(other.filePackage[otherFile]), other.files.get(otherFile));
+			addRow(other.rules[row], fileId, other.offsets[row], other.lengths[row], other.lines[row]);
+		}
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public Antipattern getRule(int row) {
+		return Antipattern.values()[rules[row]];
+	}
+
+	public String getPath(int row) {
+		return files.get(fileIds[row]);
+	}
+
+	public String getPackage(int row) {
+		return names.get(filePackage[fileIds[row]]);
+	}
+
+	public String getProject(int row) {
+		return names.get(fileProject[fileIds[row]]);
+	}
+
+	public int getOffset(int row) {
+		return offsets[row];
+	}
+
+	public int getLength(int row) {
+		return lengths[row];
+	}
+
+	public int getLine(int row) {
+		return lines[row];
+	}
+
+	// Rows matching the predicate, in insertion order
+	public int[] filter(IntPredicate predicate) {
+		int[] result = new int[16];
+		int count = 0;
+		for (int row = 0; row < size; row++) {
+			if (predicate.test(row)) {
+				if (count == result.length) {
+					result = Arrays.copyOf(result, count * 2);
+				}
+				result[count++] = row;
+			}
+		}
+		return Arrays.copyOf(result, count);
+	}
+
+	public int[] filterByRule(Antipattern rule) {
+		byte ruleId = (byte) rule.ordinal();
+		return filter(row -> rules[row] == ruleId);
+	}
+
+	public int[] filterByFile(String path) {
+		int fileId = files.lookup(path);
+		return fileId < 0 ? new int[0] : filter(row -> fileIds[row] == fileId);
+	}
+
+	public int[] filterByPackage(String pkg) {
+		int packageId = names.lookup(pkg);
+		return packageId < 0 ? new int[0] : filter(row -> filePackage[fileIds[row]] == packageId);
+	}
+
+	public int[] filterByProject(String project) {
+		int projectId = names.lookup(project);
+		return projectId < 0 ? new int[0] : filter(row -> fileProject[fileIds[row]] == projectId);
+	}
+
+	// Indexed by Antipattern.ordinal()
+	public int[] countByRule() {
+		int[] counts = new int[Antipattern.values().length];
+		for (int row = 0; row < size; row++) {
+			counts[rules[row]]++;
+		}
+		return counts;
+	}
+
+	public Map<String, Integer> countByPackage() {
+		return countByName(filePackage);
+	}
+
+	public Map<String, Integer> countByProject() {
+		return countByName(fileProject);
+	}
+
+	private Map<String, Integer> countByName(int[] fileName) {
+		// Count on the ids first, only resolve the names once per group
+		int[] counts = new int[names.size()];
+		for (int row = 0; row < size; row++) {
+			counts[fileName[fileIds[row]]]++;
+		}
+		Map<String, Integer> result = new TreeMap<>();
+		for (int id = 0; id < counts.length; id++) {
+			if (counts[id] > 0) {
+				result.merge(names.get(id), counts[id], Integer::sum);
+			}
+		}
+		return result;
+	}
+
+	public void write(OutputStream outputStream) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+
+		writeSymbols(out, names);
+		writeSymbols(out, files);
+		for (int fileId = 0; fileId < files.size(); fileId++) {
+			writeVarInt(out, fileProject[fileId]);
+			writeVarInt(out, filePackage[fileId]);
+		}
+
+		// Column by column, small ints take one or two bytes as varints
+		writeVarInt(out, size);
+		out.write(rules, 0, size);
+		for (int row = 0; row < size; row++) {
+			writeVarInt(out, fileIds[row]);
+		}
+		for (int row = 0; row < size; row++) {
+			writeVarInt(out, offsets[row]);
+		}
+		for (int row = 0; row < size; row++) {
+			writeVarInt(out, lengths[row]);
+		}
+		for (int row = 0; row < size; row++) {
+			writeVarInt(out, lines[row] + 1); // -1 for unknown lines
+		}
+		out.flush();
+	}
+
+	public static FindingStore read(InputStream inputStream) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a finding store");
+		}
+		int version = in.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported finding store version " + version);
+		}
+
+		FindingStore store = new FindingStore();
+		readSymbols(in, store.names);
+		readSymbols(in, store.files);
+		int fileCount = store.files.size();
+		store.fileProject = new int[Math.max(fileCount, 16)];
+		store.filePackage = new int[Math.max(fileCount, 16)];
+		for (int fileId = 0; fileId < fileCount; fileId++) {
+			store.fileProject[fileId] = readVarInt(in);
+			store.filePackage[fileId] = readVarInt(in);
+		}
+
+		int size = readVarInt(in);
+		int capacity = Math.max(size, 64);
+		store.size = size;
+		store.rules = new byte[capacity];
+		store.fileIds = new int[capacity];
+		store.offsets = new int[capacity];
+		store.lengths = new int[capacity];
+		store.lines = new int[capacity];
+		in.readFully(store.rules, 0, size);
+		for (int row = 0; row < size; row++) {
+			store.fileIds[row] = readVarInt(in);
+		}
+		for (int row = 0; row < size; row++) {
+			store.offsets[row] = readVarInt(in);
+		}
+		for (int row = 0; row < size; row++) {
+			store.lengths[row] = readVarInt(in);
+		}
+		for (int row = 0; row < size; row++) {
+			store.lines[row] = readVarInt(in) - 1;
+		}
+		return store;
+	}
+
+	private static void writeSymbols(DataOutputStream out, SymbolTable symbols) throws IOException {
+		writeVarInt(out, symbols.size());
+		for (int id = 0; id < symbols.size(); id++) {
+			out.writeUTF(symbols.get(id));
+		}
+	}
+
+	private static void readSymbols(DataInputStream in, SymbolTable symbols) throws IOException {
+		int count = readVarInt(in);
+		for (int id = 0; id < count; id++) {
+			symbols.intern(in.readUTF());
+		}
+	}
+
+	private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	private static int readVarInt(DataInputStream in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed varint");
+	}
+}
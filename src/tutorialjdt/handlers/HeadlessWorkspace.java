@@ -0,0 +1,45 @@
+package tutorialjdt.handlers;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceDescription;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.TypeNameRequestor;
+
+// Workspace setup shared by the headless applications (shard worker, benchmark)
+public class HeadlessWorkspace {
+
+	// Analysis only needs the sources, don't let the imports trigger builds
+	public static void disableAutoBuilding(IWorkspace workspace) throws CoreException {
+		IWorkspaceDescription workspaceDescription = workspace.getDescription();
+		workspaceDescription.setAutoBuilding(false);
+		workspace.setDescription(workspaceDescription);
+	}
+
+	// Links an existing project directory (with a .project file) into the workspace without copying it
+	public static IProject importProject(IWorkspace workspace, String location) throws CoreException {
+		IProjectDescription description = workspace.loadProjectDescription(IPath.fromOSString(location).append(IProjectDescription.DESCRIPTION_FILE_NAME));
+		IProject project = workspace.getRoot().getProject(description.getName());
+		if (!project.exists()) {
+			project.create(description, null);
+		}
+		project.open(null);
+		return project;
+	}
+
+	// Blocks until the indexer has caught up with the project, so its work isn't timed as part of the analysis
+	public static void waitForIndexer(IJavaProject project) throws JavaModelException {
+		new SearchEngine().searchAllTypeNames(null, SearchPattern.R_EXACT_MATCH, "__NoSuchType__".toCharArray(),
+				SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE, IJavaSearchConstants.TYPE,
+				SearchEngine.createJavaSearchScope(new IJavaElement[] { project }), new TypeNameRequestor() {
+				}, IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, null);
+	}
+}
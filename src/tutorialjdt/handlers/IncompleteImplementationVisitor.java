@@ -4,7 +4,6 @@ import org.eclipse.jdt.core.dom.Comment;
 
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.JavaModelException;
-import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.Block;
 import org.eclipse.jdt.core.dom.CatchClause;
 import org.eclipse.jdt.core.dom.CompilationUnit;
@@ -12,14 +11,16 @@ import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IDocument;
 
-public class IncompleteImplementationVisitor extends ASTVisitor{
+public class IncompleteImplementationVisitor extends AntipatternVisitor<IncompleteImplementationVisitor> {
 	private int incompleteImplementationCount = 0;
-	private ICompilationUnit unit;
 	private CompilationUnit astRoot;
+	private String source;
 	
-	public IncompleteImplementationVisitor(ICompilationUnit unit, CompilationUnit astRoot) {
-		this.unit = unit;
+	// source is the text astRoot was parsed from, read once per unit rather than per catch clause
+	public IncompleteImplementationVisitor(ICompilationUnit unit, CompilationUnit astRoot, String source) {
+		super(unit);
 		this.astRoot = astRoot;
+		this.source = source;
 	}
 	
 	public int getIncompleteImplementationCount() {
@@ -45,46 +46,41 @@ public class IncompleteImplementationVisitor extends ASTVisitor{
 		}
 	}
 	
-	@Override
-	public boolean visit(CatchClause node) {
+	// Shared with the bulk fix: a catch block with only a TODO/FIXME comment and no statements
+	public static boolean isIncompleteCatch(CatchClause node, CompilationUnit astRoot, String source) {
 	    Block catchBody = node.getBody();
-	    if (catchBody != null) {
-	        // Get the start and end positions of the catch block
-	        int start = catchBody.getStartPosition();
-	        int end = start + catchBody.getLength();
-	        
-	        // Check if there are any TODO comments in the catch block
-	        boolean hasTodoComment = false;
-	        for (Object commentObj : astRoot.getCommentList()) {
-	            Comment comment = (Comment) commentObj;
-	            int commentStart = comment.getStartPosition();
-	            // Check if comment is within the catch block
-	            if (commentStart >= start && commentStart <= end) {
-
-	            	String sourceComment = null;
-					try {
-						sourceComment = unit.getSource().substring(
-						    comment.getStartPosition(),
-						    comment.getStartPosition() + comment.getLength()
-						).toLowerCase();
-					} catch (JavaModelException e) {
-						// TODO Auto-generated catch block
-						e.printStackTrace();
-					}
-	                if (sourceComment.contains("todo") || sourceComment.contains("fixme")) {
-	                    hasTodoComment = true;
-	                    break;
-	                }
+	    if (catchBody == null || !catchBody.statements().isEmpty()) {
+	    	return false;
+	    }
+	    
+	    // Get the start and end positions of the catch block
+	    int start = catchBody.getStartPosition();
+	    int end = start + catchBody.getLength();
+	    
+	    // Check if there are any TODO comments in the catch block
+	    for (Object commentObj : astRoot.getCommentList()) {
+	        Comment comment = (Comment) commentObj;
+	        int commentStart = comment.getStartPosition();
+	        // Check if comment is within the catch block
+	        if (commentStart >= start && commentStart <= end) {
+	        	String sourceComment = source.substring(
+	        	    comment.getStartPosition(),
+	        	    comment.getStartPosition() + comment.getLength()
+	        	).toLowerCase();
+	            if (sourceComment.contains("todo") || sourceComment.contains("fixme")) {
+	                return true;
 	            }
 	        }
-	        
-	        // Detect incomplete implementation if the catch block has only a TODO comment (no statements)
-	        if (hasTodoComment && catchBody.statements().isEmpty()) {
-	            this.incompleteImplementationCount++;
-	            System.out.println("[ANTIPATTERN WARNING] 'Incomplete Implementation' anti-pattern detected: " + getLocation(node.getStartPosition()));
-//                getLocation(node.getStartPosition()) + "\n" + node.toString());
-	            System.out.println("----");
-	        }
+	    }
+	    return false;
+	}
+	
+	@Override
+	public boolean visit(CatchClause node) {
+	    // Detect incomplete implementation if the catch block has only a TODO comment (no statements)
+	    if (source != null && isIncompleteCatch(node, astRoot, source)) {
+	        this.incompleteImplementationCount++;
+	        report(Antipattern.INCOMPLETE_IMPLEMENTATION, node, () -> "[ANTIPATTERN WARNING] 'Incomplete Implementation' anti-pattern detected: " + getLocation(node.getStartPosition()));
 	    }
 	    return super.visit(node);
 	}
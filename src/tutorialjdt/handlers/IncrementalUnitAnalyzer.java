@@ -0,0 +1,181 @@
+package tutorialjdt.handlers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.NodeFinder;
+import org.eclipse.jdt.core.dom.TryStatement;
+
+/**
+ * Keeps the findings of one compilation unit up to date while it is edited. The edited
+ * region is the span between the common prefix and suffix of the previous and the new
+ * source. If it lies inside one method, only that method is re-analyzed; the findings
+ * before it are kept and the ones after it are shifted by the length difference.
+ * Anything else (edits between members, imports, a first run) re-analyzes the unit, as
+ * does an edit that changes the method's extent beyond the edited text (e.g. opening a
+ * block comment) or leaves it with syntax errors.
+ */
+public class IncrementalUnitAnalyzer {
+	private final ICompilationUnit unit;
+	private String previousSource;
+	// Extents of the outermost methods of the previous analysis, in source order
+	private List<int[]> previousMethods = new ArrayList<>();
+	private FindingStore findings = new FindingStore();
+	private int fullAnalyses = 0;
+	private int methodAnalyses = 0;
+
+	public IncrementalUnitAnalyzer(ICompilationUnit unit) {
+		this.unit = unit;
+	}
+
+	public FindingStore getFindings() {
+		return this.findings;
+	}
+
+	public int getFullAnalyses() {
+		return this.fullAnalyses;
+	}
+
+	public int getMethodAnalyses() {
+		return this.methodAnalyses;
+	}
+
+	// astRoot has to be the AST of source
+	public FindingStore update(CompilationUnit astRoot, String source) {
+		if (previousSource == null) {
+			analyzeFully(astRoot, source);
+			remember(astRoot, source);
+			return findings;
+		}
+
+		int prefix = commonPrefix(previousSource, source);
+		if (prefix == source.length() && prefix == previousSource.length()) {
+			return findings; // unchanged
+		}
+		int suffix = commonSuffix(previousSource, source, prefix);
+		int editEnd = source.length() - suffix;
+		int delta = source.length() - previousSource.length();
+
+		MethodDeclaration method = enclosingMethod(astRoot, prefix, editEnd);
+		if (method == null || !wasMethod(method.getStartPosition(), method.getStartPosition() + method.getLength() - delta)
+				|| hasSyntaxErrors(method)) {
+			analyzeFully(astRoot, source);
+		} else {
+			analyzeMethod(astRoot, source, method, delta);
+		}
+		remember(astRoot, source);
+		return findings;
+	}
+
+	private void remember(CompilationUnit astRoot, String source) {
+		List<int[]> methods = new ArrayList<>();
+		astRoot.accept(new ASTVisitor() {
+			@Override
+			public boolean visit(MethodDeclaration node) {
+				methods.add(new int[] { node.getStartPosition(), node.getStartPosition() + node.getLength() });
+				return false; // only the outermost ones
+			}
+		});
+		this.previousMethods = methods;
+		this.previousSource = source;
+	}
+
+	// The method has to cover the same text before the edit, else the findings around it can't be reused
+	private boolean wasMethod(int start, int end) {
+		for (int[] method : previousMethods) {
+			if (method[0] == start) {
+				return method[1] == end;
+			}
+		}
+		return false;
+	}
+
+	private static boolean hasSyntaxErrors(ASTNode node) {
+		boolean[] found = { false };
+		node.accept(new ASTVisitor() {
+			@Override
+			public boolean preVisit2(ASTNode child) {
+				found[0] |= (child.getFlags() & (ASTNode.RECOVERED | ASTNode.MALFORMED)) != 0;
+				return !found[0];
+			}
+		});
+		return found[0];
+	}
+
+	private void analyzeFully(CompilationUnit astRoot, String source) {
+		FindingStore updated = new FindingStore();
+		runDetectors(astRoot, astRoot, source, updated);
+		this.findings = updated;
+		this.fullAnalyses += 1;
+	}
+
+	private void analyzeMethod(CompilationUnit astRoot, String source, MethodDeclaration method, int delta) {
+		int methodStart = method.getStartPosition();
+		int oldMethodEnd = methodStart + method.getLength() - delta;
+
+		// Text outside the method is unchanged, so are its findings (up to the shift)
+		FindingStore updated = new FindingStore();
+		for (int row = 0; row < findings.size(); row++) {
+			int offset = findings.getOffset(row);
+			if (offset < methodStart) {
+				copy(row, offset, findings.getLine(row), updated);
+			} else if (offset >= oldMethodEnd) {
+				copy(row, offset + delta, astRoot.getLineNumber(offset + delta), updated);
+			}
+		}
+		runDetectors(method, astRoot, source, updated);
+		this.findings = updated;
+		this.methodAnalyses += 1;
+	}
+
+	private void copy(int row, int offset, int line, FindingStore target) {
+		target.add(findings.getRule(row), findings.getProject(row), findings.getPackage(row), findings.getPath(row),
+				offset, findings.getLength(row), line);
+	}
+
+	private void runDetectors(ASTNode node, CompilationUnit astRoot, String source, FindingStore target) {
+		node.accept(new TryVisitor(unit).withFindings(target).printToConsole(false));
+		node.accept(new MethodDeclarationVisitor(unit).withFindings(target).printToConsole(false));
+		node.accept(new IncompleteImplementationVisitor(unit, astRoot, source).withFindings(target).printToConsole(false));
+		node.accept(new NestedTryVisitor(unit).withFindings(target).printToConsole(false));
+	}
+
+	// Outermost method covering [start, end), null if the edit isn't inside a single method
+	private static MethodDeclaration enclosingMethod(CompilationUnit astRoot, int start, int end) {
+		ASTNode node = NodeFinder.perform(astRoot, start, end - start);
+		MethodDeclaration method = null;
+		for (; node != null; node = node.getParent()) {
+			if (node instanceof MethodDeclaration) {
+				method = (MethodDeclaration) node;
+			} else if (node instanceof TryStatement && method != null) {
+				// Method of a local/anonymous class inside a try: 'Nested Try' depends on the outside
+				return null;
+			}
+		}
+		return method;
+	}
+
+	private static int commonPrefix(String a, String b) {
+		int max = Math.min(a.length(), b.length());
+		int i = 0;
+		while (i < max && a.charAt(i) == b.charAt(i)) {
+			i++;
+		}
+		return i;
+	}
+
+	// Never overlaps the prefix, e.g. when typing a character that repeats the previous one
+	private static int commonSuffix(String a, String b, int prefix) {
+		int max = Math.min(a.length(), b.length()) - prefix;
+		int i = 0;
+		while (i < max && a.charAt(a.length() - 1 - i) == b.charAt(b.length() - 1 - i)) {
+			i++;
+		}
+		return i;
+	}
+}
@@ -0,0 +1,128 @@
+package tutorialjdt.handlers;
+
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.ToolFactory;
+import org.eclipse.jdt.core.compiler.IScanner;
+import org.eclipse.jdt.core.compiler.ITerminalSymbols;
+import org.eclipse.jdt.core.compiler.InvalidInputException;
+
+/**
+ * Scans the tokens of a compilation unit (no AST) to decide which detectors could
+ * possibly fire. Keywords inside comments and string literals are single tokens to the
+ * scanner, so they are never mistaken for real ones.
+ */
+public class LexicalPrefilter {
+	private int tryCount = 0;
+	private boolean hasCatch = false;
+	private boolean hasFinally = false;
+	private boolean hasThrow = false;
+	private boolean hasThrows = false;
+	// 'throws' below the members of a top-level type, e.g. a method of an anonymous class
+	private boolean hasNestedThrows = false;
+	private boolean hasTodoComment = false;
+
+	private LexicalPrefilter() {
+	}
+
+	// Used when the source can't be scanned: every detector has to run
+	private static LexicalPrefilter allPossible() {
+		LexicalPrefilter filter = new LexicalPrefilter();
+		filter.tryCount = 2;
+		filter.hasCatch = true;
+		filter.hasFinally = true;
+		filter.hasThrow = true;
+		filter.hasThrows = true;
+		filter.hasNestedThrows = true;
+		filter.hasTodoComment = true;
+		return filter;
+	}
+
+	public static LexicalPrefilter scan(char[] source, String sourceLevel) {
+		if (source == null) {
+			return allPossible();
+		}
+		if (sourceLevel == null) {
+			sourceLevel = JavaCore.latestSupportedJavaVersion();
+		}
+
+		IScanner scanner = ToolFactory.createScanner(true, false, false, sourceLevel, sourceLevel, false);
+		scanner.setSource(source);
+		LexicalPrefilter filter = new LexicalPrefilter();
+		int braceDepth = 0;
+
+		try {
+			int token;
+			while ((token = scanner.getNextToken()) != ITerminalSymbols.TokenNameEOF) {
+				switch (token) {
+				case ITerminalSymbols.TokenNametry:
+					filter.tryCount++;
+					break;
+				case ITerminalSymbols.TokenNamecatch:
+					filter.hasCatch = true;
+					break;
+				case ITerminalSymbols.TokenNamefinally:
+					filter.hasFinally = true;
+					break;
+				case ITerminalSymbols.TokenNamethrow:
+					filter.hasThrow = true;
+					break;
+				case ITerminalSymbols.TokenNamethrows:
+					filter.hasThrows = true;
+					filter.hasNestedThrows |= braceDepth > 1;
+					break;
+				case ITerminalSymbols.TokenNameLBRACE:
+					braceDepth++;
+					break;
+				case ITerminalSymbols.TokenNameRBRACE:
+					braceDepth--;
+					break;
+				case ITerminalSymbols.TokenNameCOMMENT_LINE:
+				case ITerminalSymbols.TokenNameCOMMENT_BLOCK:
+				case ITerminalSymbols.TokenNameCOMMENT_JAVADOC:
+					if (!filter.hasTodoComment) {
+						String comment = new String(scanner.getCurrentTokenSource()).toLowerCase();
+						filter.hasTodoComment = comment.contains("todo") || comment.contains("fixme");
+					}
+					break;
+				default:
+					break;
+				}
+			}
+		} catch (InvalidInputException e) {
+			// Unterminated comment/string etc., let the parser deal with it
+			return allPossible();
+		}
+		return filter;
+	}
+
+	// 'Throw within Finally' or 'Log and Throw' (TryVisitor)
+	public boolean canTryVisitorFire() {
+		return hasThrow && (hasCatch || (tryCount > 0 && hasFinally));
+	}
+
+	// 'Throws Generic' or 'Throws Kitchen Sink' (MethodDeclarationVisitor)
+	public boolean canMethodDeclarationVisitorFire() {
+		return hasThrows;
+	}
+
+	// 'Incomplete Implementation': a catch block holding only a TODO/FIXME comment
+	public boolean canIncompleteImplementationFire() {
+		return hasCatch && hasTodoComment;
+	}
+
+	// 'Nested Try' needs at least two try statements
+	public boolean canNestedTryFire() {
+		return tryCount >= 2;
+	}
+
+	// Every detector except MethodDeclarationVisitor looks inside method bodies. Ignoring the
+	// bodies also drops the methods of local and anonymous classes, so a 'throws' that may
+	// belong to one of them (any 'throws' nested deeper than a top-level member) needs them too.
+	public boolean needsMethodBodies() {
+		return canTryVisitorFire() || canIncompleteImplementationFire() || canNestedTryFire() || hasNestedThrows;
+	}
+
+	public boolean canAnyDetectorFire() {
+		return canTryVisitorFire() || canMethodDeclarationVisitorFire() || canIncompleteImplementationFire() || canNestedTryFire();
+	}
+}
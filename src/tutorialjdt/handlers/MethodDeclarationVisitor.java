@@ -5,16 +5,14 @@ import java.util.List;
 
 import org.eclipse.jdt.core.dom.Type;
 import org.eclipse.jdt.core.ICompilationUnit;
-import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IRegion;
 
-public class MethodDeclarationVisitor extends ASTVisitor {
+public class MethodDeclarationVisitor extends AntipatternVisitor<MethodDeclarationVisitor> {
     private int throwsKitchenSinkCount = 0;
     private int throwsGenericCount = 0;
-    private ICompilationUnit unit;
     
     public int getThrowsGenericCount() {
     	return this.throwsGenericCount;
@@ -25,7 +23,7 @@ public class MethodDeclarationVisitor extends ASTVisitor {
     }
     
     public MethodDeclarationVisitor(ICompilationUnit unit) {
-    	this.unit = unit;
+    	super(unit);
     }
     
 
@@ -70,8 +68,7 @@ public class MethodDeclarationVisitor extends ASTVisitor {
         	String exceptionTypeString = e.toString();
             if (genericExceptions.contains(exceptionTypeString)) {
             	this.throwsGenericCount += 1;
-                System.out.println("[ANTIPATTERN WARNING] 'Throws Generic' anti-pattern detected: " + getLocation(node.getStartPosition()));
-                System.out.println("----");
+            	report(Antipattern.THROWS_GENERIC, node, () -> "[ANTIPATTERN WARNING] 'Throws Generic' anti-pattern detected: " + getLocation(node.getStartPosition()));
                 break;
             }
         }
@@ -79,8 +76,7 @@ public class MethodDeclarationVisitor extends ASTVisitor {
 		// Throws Kitchen Sink
 		if (numExceptions > 2) {
 			this.throwsKitchenSinkCount += 1;
-			System.out.println("[ANTIPATTERN WARNING] 'Throws Kitchen Sink' anti-pattern detected: " + getLocation(node.getStartPosition()));
-			System.out.println("----");
+			report(Antipattern.THROWS_KITCHEN_SINK, node, () -> "[ANTIPATTERN WARNING] 'Throws Kitchen Sink' anti-pattern detected: " + getLocation(node.getStartPosition()));
 		}
 
 		return super.visit(node);
@@ -0,0 +1,128 @@
+package tutorialjdt.handlers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Modifier;
+import org.eclipse.jdt.core.dom.Type;
+import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
+import org.eclipse.jdt.core.dom.rewrite.ImportRewrite;
+import org.eclipse.jdt.core.dom.rewrite.ListRewrite;
+
+/**
+ * Fix for 'Throws Generic': replaces "throws Exception" with the checked exceptions the
+ * body really throws. Methods are left alone when a binding can't be resolved, when the
+ * body still throws Exception itself, or (by default) when the method can be overridden,
+ * since an override may rely on the broader clause. They are also left alone when a
+ * caller catches a checked exception the narrowed method would no longer throw, see
+ * {@link CallSiteChecker}. Constructors are never narrowed: they also throw what the
+ * implicit super() call and the field and instance initializers throw, none of which is
+ * in the body.
+ */
+public class NarrowThrowsFixVisitor extends ASTVisitor {
+	private final ASTRewrite rewrite;
+	private final ImportRewrite importRewrite;
+	private boolean narrowOverridable = false;
+	private CallSiteChecker callSites;
+	private int fixCount = 0;
+
+	public NarrowThrowsFixVisitor(ASTRewrite rewrite, ImportRewrite importRewrite) {
+		this.rewrite = rewrite;
+		this.importRewrite = importRewrite;
+	}
+
+	// Build pattern: also narrow methods that subclasses could override
+	public NarrowThrowsFixVisitor narrowOverridable(boolean narrowOverridable) {
+		this.narrowOverridable = narrowOverridable;
+		return this;
+	}
+
+	public int getFixCount() {
+		return this.fixCount;
+	}
+
+	@Override
+	public boolean visit(MethodDeclaration node) {
+		Type genericType = null;
+		List<ITypeBinding> declared = new ArrayList<>();
+		for (Object obj : node.thrownExceptionTypes()) {
+			Type type = (Type) obj;
+			if (genericType == null && "Exception".equals(type.toString())) {
+				genericType = type;
+			} else if (type.resolveBinding() != null) {
+				declared.add(type.resolveBinding());
+			}
+		}
+
+		if (genericType == null || node.getBody() == null || node.isConstructor()) {
+			return true;
+		}
+		IMethodBinding method = node.resolveBinding();
+		if (method == null || (!narrowOverridable && canBeOverridden(method))) {
+			return true;
+		}
+
+		ThrownExceptionCollector collector = new ThrownExceptionCollector();
+		node.getBody().accept(collector);
+		if (collector.hasUnresolved()) {
+			return true;
+		}
+		List<ITypeBinding> narrowed = collector.getThrownExceptions();
+		for (ITypeBinding exception : narrowed) {
+			String name = exception.getQualifiedName();
+			if ("java.lang.Exception".equals(name) || "java.lang.Throwable".equals(name)) {
+				return true;
+			}
+		}
+
+		List<ITypeBinding> stillThrown = new ArrayList<>(narrowed);
+		stillThrown.addAll(declared);
+		if (callSites == null) {
+			callSites = new CallSiteChecker((CompilationUnit) node.getRoot());
+		}
+		if (!callSites.callersStillCompile(method, stillThrown)) {
+			return true;
+		}
+
+		// Put the narrowed types where Exception was, skipping the ones already declared
+		AST ast = node.getAST();
+		ListRewrite thrownTypes = rewrite.getListRewrite(node, MethodDeclaration.THROWN_EXCEPTION_TYPES_PROPERTY);
+		Type previous = genericType;
+		for (ITypeBinding exception : narrowed) {
+			if (isDeclared(exception, declared)) {
+				continue;
+			}
+			Type newType = importRewrite.addImport(exception, ast);
+			thrownTypes.insertAfter(newType, previous, null);
+			previous = newType;
+		}
+		thrownTypes.remove(genericType, null);
+		this.fixCount += 1;
+
+		return true;
+	}
+
+	private static boolean isDeclared(ITypeBinding exception, List<ITypeBinding> declared) {
+		for (ITypeBinding type : declared) {
+			if (exception.isSubTypeCompatible(type)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean canBeOverridden(IMethodBinding method) {
+		int modifiers = method.getModifiers();
+		if (Modifier.isPrivate(modifiers) || Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+			return false;
+		}
+		ITypeBinding declaringClass = method.getDeclaringClass();
+		return !(Modifier.isFinal(declaringClass.getModifiers()) || declaringClass.isAnonymous() || declaringClass.isRecord());
+	}
+}
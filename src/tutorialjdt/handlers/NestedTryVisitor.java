@@ -1,34 +1,30 @@
 package tutorialjdt.handlers;
 
-import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.dom.TryStatement;
 import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IRegion;
 
-class NestedTryVisitor extends ASTVisitor {
+class NestedTryVisitor extends AntipatternVisitor<NestedTryVisitor> {
 	
 	private int tryDepth = 0;
     private int nestedTryCount = 0;
     
-    private ICompilationUnit unit;
-    
     public int getNestedTryCount() {
         return this.nestedTryCount;
     }
     
     public NestedTryVisitor(ICompilationUnit unit) {
-        this.unit = unit;
+        super(unit);
     }
     
     @Override
     public boolean visit(TryStatement node) {
         if (tryDepth >= 1) {
             nestedTryCount++;
-            System.out.println("[ANTIPATTERN WARNING] 'Nested Try' detected: " 
-                               + getLocation(node.getStartPosition()));
-            System.out.println("----");
+            report(Antipattern.NESTED_TRY, node, () -> "[ANTIPATTERN WARNING] 'Nested Try' detected: " 
+                                   + getLocation(node.getStartPosition()));
         }
         
         tryDepth++;
@@ -0,0 +1,100 @@
+package tutorialjdt.handlers;
+
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.AssertStatement;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.BooleanLiteral;
+import org.eclipse.jdt.core.dom.CatchClause;
+import org.eclipse.jdt.core.dom.DoStatement;
+import org.eclipse.jdt.core.dom.EmptyStatement;
+import org.eclipse.jdt.core.dom.EnhancedForStatement;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.ExpressionStatement;
+import org.eclipse.jdt.core.dom.ForStatement;
+import org.eclipse.jdt.core.dom.IfStatement;
+import org.eclipse.jdt.core.dom.LabeledStatement;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.SynchronizedStatement;
+import org.eclipse.jdt.core.dom.TryStatement;
+import org.eclipse.jdt.core.dom.TypeDeclarationStatement;
+import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
+import org.eclipse.jdt.core.dom.WhileStatement;
+
+/**
+ * Conservative version of the "can complete normally" rules of JLS 14.22: true only when
+ * the statement certainly can, false when it can't or when the answer would need more
+ * analysis (labels, switch statements, loops with a constant true condition).
+ */
+public class Reachability {
+
+	private Reachability() {
+	}
+
+	public static boolean canCompleteNormally(Statement statement) {
+		if (statement == null) {
+			return true;
+		}
+		if (statement instanceof Block) {
+			// In code that compiles every statement is reachable, so the last one decides
+			List<?> statements = ((Block) statement).statements();
+			return statements.isEmpty() || canCompleteNormally((Statement) statements.get(statements.size() - 1));
+		}
+		if (statement instanceof ExpressionStatement || statement instanceof VariableDeclarationStatement
+				|| statement instanceof EmptyStatement || statement instanceof TypeDeclarationStatement
+				|| statement instanceof AssertStatement || statement instanceof EnhancedForStatement) {
+			return true;
+		}
+		if (statement instanceof IfStatement) {
+			IfStatement ifStatement = (IfStatement) statement;
+			return ifStatement.getElseStatement() == null
+					|| canCompleteNormally(ifStatement.getThenStatement()) || canCompleteNormally(ifStatement.getElseStatement());
+		}
+		if (statement instanceof WhileStatement) {
+			return !isConstantTrue(((WhileStatement) statement).getExpression());
+		}
+		if (statement instanceof ForStatement) {
+			Expression condition = ((ForStatement) statement).getExpression();
+			return condition != null && !isConstantTrue(condition);
+		}
+		if (statement instanceof DoStatement) {
+			DoStatement doStatement = (DoStatement) statement;
+			return !isConstantTrue(doStatement.getExpression()) && canCompleteNormally(doStatement.getBody());
+		}
+		if (statement instanceof LabeledStatement) {
+			return canCompleteNormally(((LabeledStatement) statement).getBody());
+		}
+		if (statement instanceof SynchronizedStatement) {
+			return canCompleteNormally(((SynchronizedStatement) statement).getBody());
+		}
+		if (statement instanceof TryStatement) {
+			TryStatement tryStatement = (TryStatement) statement;
+			if (tryStatement.getFinally() != null && !canCompleteNormally(tryStatement.getFinally())) {
+				return false;
+			}
+			return canTryCompleteNormallyWithout(tryStatement, null);
+		}
+		// return, throw, break, continue, yield, switch
+		return false;
+	}
+
+	// Whether the try block or a catch clause other than the excluded one can complete normally
+	public static boolean canTryCompleteNormallyWithout(TryStatement tryStatement, CatchClause excluded) {
+		if (canCompleteNormally(tryStatement.getBody())) {
+			return true;
+		}
+		for (Object obj : tryStatement.catchClauses()) {
+			CatchClause catchClause = (CatchClause) obj;
+			if (catchClause != excluded && canCompleteNormally(catchClause.getBody())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// Constants other than the literal need bindings
+	private static boolean isConstantTrue(Expression expression) {
+		return (expression instanceof BooleanLiteral && ((BooleanLiteral) expression).booleanValue())
+				|| Boolean.TRUE.equals(expression.resolveConstantExpressionValue());
+	}
+}
@@ -0,0 +1,90 @@
+package tutorialjdt.handlers;
+
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.CatchClause;
+import org.eclipse.jdt.core.dom.ClassInstanceCreation;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.ThrowStatement;
+import org.eclipse.jdt.core.dom.TryStatement;
+import org.eclipse.jdt.core.dom.Type;
+import org.eclipse.jdt.core.dom.UnionType;
+import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
+import org.eclipse.jdt.core.dom.rewrite.ListRewrite;
+
+/**
+ * Fix for 'Incomplete Implementation': adds a rethrow after the TODO comment of an
+ * otherwise empty catch block. Unchecked exceptions are rethrown as they are, checked
+ * ones are wrapped in a RuntimeException so the method signature doesn't change. A catch
+ * block is left alone when it is the only way the try statement completes normally: with
+ * the rethrow the code after the try would become unreachable and stop compiling.
+ */
+public class RethrowFixVisitor extends ASTVisitor {
+	private final ASTRewrite rewrite;
+	private final CompilationUnit astRoot;
+	private final String source;
+	private int fixCount = 0;
+	private int skippedCount = 0;
+
+	public RethrowFixVisitor(ASTRewrite rewrite, CompilationUnit astRoot, String source) {
+		this.rewrite = rewrite;
+		this.astRoot = astRoot;
+		this.source = source;
+	}
+
+	public int getFixCount() {
+		return this.fixCount;
+	}
+
+	// Incomplete catch blocks that can't be fixed without making the following code unreachable
+	public int getSkippedCount() {
+		return this.skippedCount;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public boolean visit(CatchClause node) {
+		if (!IncompleteImplementationVisitor.isIncompleteCatch(node, astRoot, source)) {
+			return true;
+		}
+		if (!Reachability.canTryCompleteNormallyWithout((TryStatement) node.getParent(), node)) {
+			this.skippedCount += 1;
+			return true;
+		}
+
+		AST ast = node.getAST();
+		String name = node.getException().getName().getIdentifier();
+		ThrowStatement rethrow = ast.newThrowStatement();
+		if (isUnchecked(node)) {
+			rethrow.setExpression(ast.newSimpleName(name));
+		} else {
+			ClassInstanceCreation wrapper = ast.newClassInstanceCreation();
+			wrapper.setType(ast.newSimpleType(ast.newSimpleName("RuntimeException")));
+			wrapper.arguments().add(ast.newSimpleName(name));
+			rethrow.setExpression(wrapper);
+		}
+
+		ListRewrite statements = rewrite.getListRewrite(node.getBody(), Block.STATEMENTS_PROPERTY);
+		statements.insertLast(rethrow, null);
+		this.fixCount += 1;
+
+		return true;
+	}
+
+	// Every caught type (all alternatives of a multi-catch) has to be unchecked
+	private static boolean isUnchecked(CatchClause node) {
+		if (node.getException().getType() instanceof UnionType) {
+			for (Object type : ((UnionType) node.getException().getType()).types()) {
+				ITypeBinding binding = ((Type) type).resolveBinding();
+				if (binding == null || !ThrownExceptionCollector.isUnchecked(binding)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		ITypeBinding binding = node.getException().getType().resolveBinding();
+		return binding != null && ThrownExceptionCollector.isUnchecked(binding);
+	}
+}
@@ -0,0 +1,341 @@
+package tutorialjdt.handlers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+
+/**
+ * Headless behavior checks for the pure logic that is easy to get subtly wrong (varint
+ * boundaries, id remapping, token scanning, incremental offsets, reachability). Prints
+ * every failed check and exits with 1 if there was one.
+ *
+ * eclipse -nosplash -application tutorialjdt.selfCheck -data /tmp/check-ws
+ */
+public class SelfCheckApplication implements IApplication {
+	private int checks = 0;
+	private int failures = 0;
+
+	@Override
+	public Object start(IApplicationContext context) throws Exception {
+		checkFindingStore();
+		checkLexicalPrefilter();
+		checkIncrementalAnalysis();
+		checkRethrowFix();
+
+		System.out.println(checks + " checks, " + failures + " failed");
+		return failures == 0 ? IApplication.EXIT_OK : Integer.valueOf(1);
+	}
+
+	private void checkEquals(String name, Object expected, Object actual) {
+		checks++;
+		if (!Objects.deepEquals(expected, actual)) {
+			failures++;
+			System.out.println("FAILED " + name + ": expected " + format(expected) + " but was " + format(actual));
+		}
+	}
+
+	private static String format(Object value) {
+		return value instanceof int[] ? Arrays.toString((int[]) value) : String.valueOf(value);
+	}
+
+	// FindingStore: binary round trip, merging and filters
+
+	private void checkFindingStore() throws IOException {
+		// Offsets on the varint byte boundaries, unknown lines, non-ASCII and supplementary characters
+		FindingStore store = new FindingStore();
+		int[] offsets = { 0, 127, 128, 16383, 16384, Integer.MAX_VALUE };
+		String[] packages = { "a", "\u00e4", "b" };
+		String[] paths = { "/p/src/a/A.java", "/p/src/\u00e4/\u00c4rger.java", "/p/src/b/\uD835\uDD18.java" };
+		for (int i = 0; i < offsets.length; i++) {
+			store.add(Antipattern.values()[i % Antipattern.values().length], "p", packages[i % packages.length], paths[i % paths.length],
+					offsets[i], offsets[offsets.length - 1 - i], i == 0 ? -1 : i * 1000);
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		store.write(bytes);
+		FindingStore read = FindingStore.read(new ByteArrayInputStream(bytes.toByteArray()));
+		checkEquals("round trip size", store.size(), read.size());
+		for (int row = 0; row < Math.min(store.size(), read.size()); row++) {
+			checkEquals("round trip row " + row, describe(store, row), describe(read, row));
+		}
+
+		try {
+			FindingStore.read(new ByteArrayInputStream(new byte[8]));
+			checkEquals("read rejects a foreign stream", "IOException", "no exception");
+		} catch (IOException e) {
+			checkEquals("read rejects a foreign stream", "IOException", "IOException");
+		}
+
+		// Two stores with overlapping files interned in a different order
+		FindingStore first = new FindingStore();
+		first.add(Antipattern.NESTED_TRY, "p1", "x", "/p1/src/x/X.java", 10, 5, 1);
+		first.add(Antipattern.LOG_AND_THROW, "p1", "y", "/p1/src/y/Y.java", 20, 5, 2);
+		FindingStore second = new FindingStore();
+		second.add(Antipattern.THROWS_GENERIC, "p2", "z", "/p2/src/z/Z.java", 30, 5, 3);
+		second.add(Antipattern.THROWS_KITCHEN_SINK, "p1", "y", "/p1/src/y/Y.java", 40, 5, 4);
+
+		FindingStore merged = new FindingStore();
+		merged.addAll(first);
+		merged.addAll(second);
+		checkEquals("addAll size", 4, merged.size());
+		for (int row = 0; row < first.size(); row++) {
+			checkEquals("addAll first row " + row, describe(first, row), describe(merged, row));
+		}
+		for (int row = 0; row < second.size(); row++) {
+			checkEquals("addAll second row " + row, describe(second, row), describe(merged, first.size() + row));
+		}
+
+		checkEquals("filterByFile", new int[] { 1, 3 }, merged.filterByFile("/p1/src/y/Y.java"));
+		checkEquals("filterByPackage", new int[] { 1, 3 }, merged.filterByPackage("y"));
+		checkEquals("filterByProject", new int[] { 0, 1, 3 }, merged.filterByProject("p1"));
+		checkEquals("filterByRule", new int[] { 2 }, merged.filterByRule(Antipattern.THROWS_GENERIC));
+		checkEquals("filterByFile unknown", new int[0], merged.filterByFile("/nowhere"));
+		checkEquals("countByProject", "{p1=3, p2=1}", merged.countByProject().toString());
+		checkEquals("countByPackage", "{x=1, y=2, z=1}", merged.countByPackage().toString());
+	}
+
+	private static String describe(FindingStore store, int row) {
+		return store.getRule(row) + " " + store.getProject(row) + " " + store.getPackage(row) + " " + store.getPath(row)
+				+ " " + store.getOffset(row) + "+" + store.getLength(row) + " line " + store.getLine(row);
+	}
+
+	// LexicalPrefilter: keywords only count as real tokens, braces only outside literals
+
+	private void checkLexicalPrefilter() {
+		LexicalPrefilter filter = scan("class A { /* try catch finally throw throws */ // try { } catch\n"
+				+ " String s = \"try { } catch (E e) { throw e; } throws\"; char c = 't'; }");
+		checkEquals("keywords in comments and strings", false, filter.canAnyDetectorFire());
+
+		filter = scan("class A { String s = \"\"\"\n  try { } catch (E e) { throw e; } finally { } throws\n  \"\"\"; }");
+		checkEquals("keywords in a text block", false, filter.canAnyDetectorFire());
+
+		filter = scan("class A { void m() throws Exception { } }");
+		checkEquals("throws on a top-level method", true, filter.canMethodDeclarationVisitorFire());
+		checkEquals("throws on a top-level method needs no bodies", false, filter.needsMethodBodies());
+
+		filter = scan("class A { Object o = new java.util.concurrent.Callable<Object>() { public Object call() throws Exception { return null; } }; }");
+		checkEquals("throws in an anonymous class needs bodies", true, filter.needsMethodBodies());
+
+		filter = scan("class A { void m() { class L { void n() throws Exception { } } } }");
+		checkEquals("throws in a local class needs bodies", true, filter.needsMethodBodies());
+
+		filter = scan("class A { String s = \"{{{\"; char c = '{'; /* { */ void m() throws Exception { } }");
+		checkEquals("braces in literals and comments don't count", false, filter.needsMethodBodies());
+
+		filter = scan("class A { void m() { try { f(); } catch (Exception e) { // TODO handle\n } } }");
+		checkEquals("catch with a TODO comment", true, filter.canIncompleteImplementationFire());
+		checkEquals("single try isn't nested", false, filter.canNestedTryFire());
+		checkEquals("catch without throw", false, filter.canTryVisitorFire());
+
+		filter = scan("class A { void m() { try { f(); } catch (Exception e) { // handled\n } } }");
+		checkEquals("catch without a TODO comment", false, filter.canIncompleteImplementationFire());
+
+		filter = scan("class A { void m() { try { try { f(); } finally { } } finally { throw new RuntimeException(); } } }");
+		checkEquals("two try statements", true, filter.canNestedTryFire());
+		checkEquals("throw with finally", true, filter.canTryVisitorFire());
+
+		filter = scan("class A { /* unterminated ");
+		checkEquals("unscannable source allows everything", true, filter.canAnyDetectorFire());
+	}
+
+	private static LexicalPrefilter scan(String source) {
+		return LexicalPrefilter.scan(source.toCharArray(), "17");
+	}
+
+	// IncrementalUnitAnalyzer: after every edit the findings must equal a full analysis
+
+	private static final String INCREMENTAL_SOURCE = ""
+			+ "package check;\n\n"
+			+ "class C {\n"
+			+ "    void a() throws Exception {\n"
+			+ "        try {\n"
+			+ "            f();\n"
+			+ "        } catch (Exception e) {\n"
+			+ "            // TODO\n"
+			+ "        }\n"
+			+ "    }\n\n"
+			+ "    void b() {\n"
+			+ "        try {\n"
+			+ "            try { f(); } finally { }\n"
+			+ "        } finally {\n"
+			+ "            throw new RuntimeException();\n"
+			+ "        }\n"
+			+ "    }\n\n"
+			+ "    void c() throws java.io.IOException, InterruptedException, ReflectiveOperationException {\n"
+			+ "        f();\n"
+			+ "    }\n\n"
+			+ "    void f() { }\n"
+			+ "}\n";
+
+	private void checkIncrementalAnalysis() throws Exception {
+		// The analyzer only takes the project, package and path from the unit
+		Path directory = Files.createTempDirectory("tutorialjdt-selfcheck");
+		new SyntheticWorkspaceGenerator().units(1).generate(directory, "selfcheck");
+		HeadlessWorkspace.disableAutoBuilding(ResourcesPlugin.getWorkspace());
+		IProject project = HeadlessWorkspace.importProject(ResourcesPlugin.getWorkspace(), directory.toString());
+		ICompilationUnit unit = null;
+		for (IPackageFragment pkg : JavaCore.create(project).getPackageFragments()) {
+			if (pkg.getKind() == IPackageFragmentRoot.K_SOURCE && pkg.getCompilationUnits().length > 0) {
+				unit = pkg.getCompilationUnits()[0];
+			}
+		}
+
+		IncrementalUnitAnalyzer analyzer = new IncrementalUnitAnalyzer(unit);
+		String source = INCREMENTAL_SOURCE;
+		checkIncremental("initial", unit, analyzer, source);
+
+		source = edit(source, "    void a() throws Exception {\n", "    void a() throws Exception {\n        int x = 1;\n");
+		checkIncremental("statement added before the findings of a()", unit, analyzer, source);
+
+		source = edit(source, "    void c() throws java.io.IOException, InterruptedException, ReflectiveOperationException {\n        f();",
+				"    void c() throws java.io.IOException, InterruptedException, ReflectiveOperationException {\n        try { try { f(); } finally { } } finally { }");
+		checkIncremental("nested try added in c()", unit, analyzer, source);
+
+		source = edit(source, "        int x = 1;\n", "");
+		checkIncremental("statement removed from a()", unit, analyzer, source);
+
+		source = edit(source, "    void b() {\n", "    void b() {\n/*");
+		checkIncremental("block comment opened in b()", unit, analyzer, source);
+
+		source = edit(source, "/*", "");
+		checkIncremental("block comment closed again", unit, analyzer, source);
+
+		source = edit(source, "    void f() { }\n", "    int field;\n\n    void f() { }\n");
+		checkIncremental("field added between members", unit, analyzer, source);
+
+		// Typing character by character, with incomplete statements on the way
+		String typed = "g(1);";
+		for (int i = 1; i <= typed.length(); i++) {
+			String inserted = typed.substring(0, i);
+			String previous = i == 1 ? "" : typed.substring(0, i - 1);
+			source = edit(source, "    void b() {\n" + previous, "    void b() {\n" + inserted);
+			checkIncremental("typed '" + inserted + "' in b()", unit, analyzer, source);
+		}
+
+		checkEquals("some edits re-analyzed a single method", true, analyzer.getMethodAnalyses() > 0);
+
+		project.delete(false, true, null);
+	}
+
+	private void checkIncremental(String name, ICompilationUnit unit, IncrementalUnitAnalyzer analyzer, String source) {
+		String incremental = rows(analyzer.update(parse(unit, source), source));
+		String full = rows(new IncrementalUnitAnalyzer(unit).update(parse(unit, source), source));
+		checkEquals("incremental equals full analysis: " + name, full, incremental);
+	}
+
+	private static CompilationUnit parse(ICompilationUnit unit, String source) {
+	    ASTParser parser = ASTParser.newParser(AST.JLS22);
+	    parser.setSource(source.toCharArray());
+	    parser.setKind(ASTParser.K_COMPILATION_UNIT);
+		parser.setCompilerOptions(unit.getJavaProject().getOptions(true));
+		parser.setStatementsRecovery(true);
+		return (CompilationUnit) parser.createAST(null);
+	}
+
+	private static String rows(FindingStore store) {
+		List<String> rows = new ArrayList<>();
+		for (int row = 0; row < store.size(); row++) {
+			rows.add(describe(store, row));
+		}
+		Collections.sort(rows);
+		return String.join("\n", rows);
+	}
+
+	// Replaces the first occurrence, the edits are written against known text
+	private static String edit(String source, String target, String replacement) {
+		int index = source.indexOf(target);
+		if (index < 0) {
+			throw new IllegalStateException("Edit target not found: " + target);
+		}
+		return source.substring(0, index) + replacement + source.substring(index + target.length());
+	}
+
+	// RethrowFixVisitor: never make the code after the try unreachable
+
+	private void checkRethrowFix() throws BadLocationException {
+		String onlyPath = "class R {\n"
+				+ "    int parse(String s) {\n"
+				+ "        try {\n"
+				+ "            return Integer.parseInt(s);\n"
+				+ "        } catch (NumberFormatException e) {\n"
+				+ "            // TODO\n"
+				+ "        }\n"
+				+ "        return 0;\n"
+				+ "    }\n"
+				+ "}\n";
+		checkEquals("catch the try depends on is not fixed", "fixed 0, skipped 1, unchanged", rethrow(onlyPath));
+
+		String tryCompletes = "class R {\n"
+				+ "    int parse(String s) {\n"
+				+ "        int value = 0;\n"
+				+ "        try {\n"
+				+ "            value = Integer.parseInt(s);\n"
+				+ "        } catch (NumberFormatException e) {\n"
+				+ "            // TODO\n"
+				+ "        }\n"
+				+ "        return value;\n"
+				+ "    }\n"
+				+ "}\n";
+		checkEquals("catch after a try block that completes is fixed", "fixed 1, skipped 0, rethrows", rethrow(tryCompletes));
+
+		String otherCatchCompletes = "class R {\n"
+				+ "    int parse(String s) {\n"
+				+ "        try {\n"
+				+ "            return Integer.parseInt(s);\n"
+				+ "        } catch (NumberFormatException e) {\n"
+				+ "            // TODO\n"
+				+ "        } catch (IllegalStateException e) {\n"
+				+ "            System.out.println(e);\n"
+				+ "        }\n"
+				+ "        return 0;\n"
+				+ "    }\n"
+				+ "}\n";
+		checkEquals("catch next to another completing catch is fixed", "fixed 1, skipped 0, rethrows", rethrow(otherCatchCompletes));
+	}
+
+	// Without bindings every caught type counts as checked, so the fix wraps it
+	private static String rethrow(String source) throws BadLocationException {
+	    ASTParser parser = ASTParser.newParser(AST.JLS22);
+	    parser.setSource(source.toCharArray());
+	    parser.setKind(ASTParser.K_COMPILATION_UNIT);
+		CompilationUnit astRoot = (CompilationUnit) parser.createAST(null);
+
+		ASTRewrite rewrite = ASTRewrite.create(astRoot.getAST());
+		RethrowFixVisitor visitor = new RethrowFixVisitor(rewrite, astRoot, source);
+		astRoot.accept(visitor);
+
+		IDocument document = new Document(source);
+		rewrite.rewriteAST(document, null).apply(document);
+		String result = document.get().equals(source) ? "unchanged"
+				: document.get().contains("throw new RuntimeException(e);") ? "rethrows" : "changed:\n" + document.get();
+		return "fixed " + visitor.getFixCount() + ", skipped " + visitor.getSkippedCount() + ", " + result;
+	}
+
+	@Override
+	public void stop() {
+		// nothing to do
+	}
+}
@@ -0,0 +1,276 @@
+package tutorialjdt.handlers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+/**
+ * Splits the analysis over several local headless worker JVMs. Every worker runs
+ * {@link ShardWorkerApplication} in its own workspace, imports the given projects and
+ * analyzes the compilation units of its shard. The coordinator retries failed shards
+ * and merges the per-shard counters and findings into one report.
+ */
+public class ShardCoordinator {
+	public static final String WORKER_APPLICATION_ID = "tutorialjdt.shardWorker";
+
+	// Command used to start a worker, e.g. "/opt/eclipse/eclipse" (defaults to the running launcher).
+	// The workers get the install area, the bundles (config.ini) and the dev class path of the
+	// running instance, so the plug-in doesn't have to be installed into the launcher itself,
+	// e.g. when running from a PDE launch.
+	public static final String LAUNCHER_PROPERTY = "tutorialjdt.shard.launcher";
+
+	// VM arguments for every worker, e.g. "-Xmx4g"
+	public static final String VMARGS_PROPERTY = "tutorialjdt.shard.vmargs";
+
+	private static final long POLL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+	private final int shardCount;
+	private final List<String> projectLocations;
+	private int maxAttempts = 3;
+	private long timeoutMinutes = 60;
+	private Path workDirectory;
+	private FindingStore findings = new FindingStore();
+
+	public ShardCoordinator(int shardCount, List<String> projectLocations) {
+		this.shardCount = shardCount;
+		this.projectLocations = projectLocations;
+	}
+
+	public ShardCoordinator maxAttempts(int maxAttempts) {
+		this.maxAttempts = maxAttempts;
+		return this;
+	}
+
+	public ShardCoordinator timeoutMinutes(long timeoutMinutes) {
+		this.timeoutMinutes = timeoutMinutes;
+		return this;
+	}
+
+	public ShardCoordinator workDirectory(Path workDirectory) {
+		this.workDirectory = workDirectory;
+		return this;
+	}
+
+	// Merged findings of all shards, filled by run()
+	public FindingStore getFindings() {
+		return this.findings;
+	}
+
+	// Throws OperationCanceledException when the monitor is canceled, the workers are stopped then
+	public AntipatternCounts run(IProgressMonitor monitor) throws IOException, InterruptedException {
+		if (workDirectory == null) {
+			workDirectory = Files.createTempDirectory("tutorialjdt-shards");
+		}
+
+		List<Integer> pending = new ArrayList<>();
+		for (int shard = 0; shard < shardCount; shard++) {
+			pending.add(shard);
+		}
+
+		AntipatternCounts[] shardCounts = new AntipatternCounts[shardCount];
+		Path[] shardLogs = new Path[shardCount];
+		Path[] shardFindings = new Path[shardCount];
+
+		for (int attempt = 1; attempt <= maxAttempts && !pending.isEmpty(); attempt++) {
+			List<Process> processes = new ArrayList<>();
+			List<Path> attemptDirectories = new ArrayList<>();
+			// Also covers a JVM exit (e.g. the IDE is closed) while the workers are running
+			Thread killWorkers = new Thread(() -> destroyAll(processes));
+			Runtime.getRuntime().addShutdownHook(killWorkers);
+			try {
+				for (int shard : pending) {
+					Path attemptDirectory = workDirectory.resolve("shard-" + shard).resolve("attempt-" + attempt);
+					Files.createDirectories(attemptDirectory);
+					attemptDirectories.add(attemptDirectory);
+					processes.add(startWorker(shard, attemptDirectory));
+				}
+
+				// One deadline for the whole attempt, the workers run concurrently
+				long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(timeoutMinutes);
+				List<Integer> failed = new ArrayList<>();
+				for (int i = 0; i < pending.size(); i++) {
+					int shard = pending.get(i);
+					Process process = processes.get(i);
+					Path resultFile = attemptDirectories.get(i).resolve("result.properties");
+
+					boolean finished = waitFor(process, deadline, monitor);
+					if (!finished) {
+						destroy(process);
+						System.out.println("Shard " + shard + " timed out (attempt " + attempt + ")");
+						failed.add(shard);
+					} else if (process.exitValue() != 0 || !Files.exists(resultFile)) {
+						System.out.println("Shard " + shard + " failed with exit code " + process.exitValue() + " (attempt " + attempt + "), see "
+								+ attemptDirectories.get(i).resolve("worker.err"));
+						failed.add(shard);
+					} else {
+						Properties properties = new Properties();
+						try (InputStream in = Files.newInputStream(resultFile)) {
+							properties.load(in);
+						}
+						shardCounts[shard] = AntipatternCounts.fromProperties(properties);
+						shardLogs[shard] = attemptDirectories.get(i).resolve("findings.log");
+						shardFindings[shard] = attemptDirectories.get(i).resolve(ShardWorkerApplication.FINDINGS_FILE_NAME);
+					}
+				}
+				pending = failed;
+			} finally {
+				// A failed start, an interrupt or a cancel must not leave workers behind
+				destroyAll(processes);
+				try {
+					Runtime.getRuntime().removeShutdownHook(killWorkers);
+				} catch (IllegalStateException e) {
+					// Already shutting down, the hook runs anyway
+				}
+			}
+		}
+
+		if (!pending.isEmpty()) {
+			throw new IOException("Shards " + pending + " failed after " + maxAttempts + " attempts, see " + workDirectory);
+		}
+
+		// Merge: findings in shard order, then the summed counters
+		AntipatternCounts merged = new AntipatternCounts();
+		for (int shard = 0; shard < shardCount; shard++) {
+			System.out.println("Shard " + shard + ":");
+			Files.copy(shardLogs[shard], System.out);
+			try (InputStream in = Files.newInputStream(shardFindings[shard])) {
+				findings.addAll(FindingStore.read(in));
+			}
+			merged.add(shardCounts[shard]);
+		}
+		return merged;
+	}
+
+	// Waits in short slices so a cancel is noticed while the workers run
+	private static boolean waitFor(Process process, long deadline, IProgressMonitor monitor) throws InterruptedException {
+		while (true) {
+			long remaining = deadline - System.nanoTime();
+			if (process.waitFor(Math.max(0, Math.min(remaining, POLL_INTERVAL_NANOS)), TimeUnit.NANOSECONDS)) {
+				return true;
+			}
+			if (remaining <= 0) {
+				return false;
+			}
+			if (monitor != null && monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+		}
+	}
+
+	private static void destroyAll(List<Process> processes) {
+		for (Process process : processes) {
+			destroy(process);
+		}
+	}
+
+	private static void destroy(Process process) {
+		if (process.isAlive()) {
+			process.descendants().forEach(ProcessHandle::destroyForcibly);
+			process.destroyForcibly();
+		}
+	}
+
+	private Process startWorker(int shard, Path attemptDirectory) throws IOException {
+		List<String> command = new ArrayList<>(launcherCommand());
+		// A failing worker must not block on the launcher's error dialog
+		command.add("--launcher.suppressErrors");
+		command.add("-nosplash");
+		command.add("-application");
+		command.add(WORKER_APPLICATION_ID);
+		command.add("-data");
+		command.add(attemptDirectory.resolve("workspace").toString());
+		command.addAll(frameworkArguments(attemptDirectory));
+		command.add(ShardWorkerApplication.ARG_SHARD_INDEX);
+		command.add(Integer.toString(shard));
+		command.add(ShardWorkerApplication.ARG_SHARD_COUNT);
+		command.add(Integer.toString(shardCount));
+		command.add(ShardWorkerApplication.ARG_RESULT);
+		command.add(attemptDirectory.resolve("result.properties").toString());
+		for (String location : projectLocations) {
+			command.add(ShardWorkerApplication.ARG_PROJECT);
+			command.add(location);
+		}
+
+		// Everything after -vmargs goes to the JVM, so it has to come last
+		String vmargs = System.getProperty(VMARGS_PROPERTY);
+		if (vmargs != null && !vmargs.isBlank()) {
+			command.add("-vmargs");
+			command.addAll(Arrays.asList(vmargs.trim().split("\\s+")));
+		}
+
+		ProcessBuilder builder = new ProcessBuilder(command);
+		builder.redirectOutput(attemptDirectory.resolve("findings.log").toFile());
+		builder.redirectError(attemptDirectory.resolve("worker.err").toFile());
+		return builder.start();
+	}
+
+	// Same install, bundles and dev class path as the running instance, but a private configuration area
+	private static List<String> frameworkArguments(Path attemptDirectory) throws IOException {
+		List<String> arguments = new ArrayList<>();
+		String installArea = System.getProperty("osgi.install.area");
+		if (installArea != null) {
+			arguments.add("-install");
+			arguments.add(installArea);
+		}
+
+		// Sharing the configuration area between running instances isn't safe, copy its config.ini
+		Path configIni = toPath(System.getProperty("osgi.configuration.area"), "config.ini");
+		if (configIni != null && Files.isRegularFile(configIni)) {
+			Path configuration = attemptDirectory.resolve("configuration");
+			Files.createDirectories(configuration);
+			Files.copy(configIni, configuration.resolve("config.ini"), StandardCopyOption.REPLACE_EXISTING);
+			arguments.add("-configuration");
+			arguments.add(configuration.toString());
+		}
+
+		// Set by PDE launches: the plug-ins' output folders instead of their jars
+		String dev = System.getProperty("osgi.dev");
+		if (dev != null) {
+			arguments.add("-dev");
+			arguments.add(dev);
+		}
+		return arguments;
+	}
+
+	// The OSGi location properties are URLs, only local directories can be used
+	private static Path toPath(String area, String fileName) {
+		if (area == null) {
+			return null;
+		}
+		try {
+			URL url = new URL(area);
+			return "file".equals(url.getProtocol()) ? new File(url.getPath()).toPath().resolve(fileName) : null;
+		} catch (MalformedURLException | InvalidPathException e) {
+			return null;
+		}
+	}
+
+	private static List<String> launcherCommand() throws IOException {
+		String launcher = System.getProperty(LAUNCHER_PROPERTY);
+		if (launcher != null && !launcher.isBlank()) {
+			return Arrays.asList(launcher.trim().split("\\s+"));
+		}
+
+		// Set by the native Eclipse launcher of the running instance
+		String eclipseLauncher = System.getProperty("eclipse.launcher");
+		if (eclipseLauncher != null && new File(eclipseLauncher).canExecute()) {
+			return Arrays.asList(eclipseLauncher);
+		}
+
+		throw new IOException("Cannot find the Eclipse launcher, set -D" + LAUNCHER_PROPERTY + "=<command>");
+	}
+}
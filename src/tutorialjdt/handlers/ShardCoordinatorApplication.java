@@ -0,0 +1,59 @@
+package tutorialjdt.handlers;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+
+/**
+ * Headless entry point for the sharded analysis, so it can be run and tested from the
+ * command line without a workbench:
+ *
+ * eclipse -nosplash -application tutorialjdt.shardCoordinator -shards 4 -project /path/to/project ...
+ */
+public class ShardCoordinatorApplication implements IApplication {
+
+	@Override
+	public Object start(IApplicationContext context) throws Exception {
+		String[] args = (String[]) context.getArguments().get(IApplicationContext.APPLICATION_ARGS);
+		int shardCount = Runtime.getRuntime().availableProcessors();
+		List<String> projectLocations = new ArrayList<>();
+		int maxAttempts = 3;
+		String workDirectory = null;
+
+		for (int i = 0; i < args.length - 1; i++) {
+			if ("-shards".equals(args[i])) {
+				shardCount = Integer.parseInt(args[++i]);
+			} else if ("-attempts".equals(args[i])) {
+				maxAttempts = Integer.parseInt(args[++i]);
+			} else if ("-workDir".equals(args[i])) {
+				workDirectory = args[++i];
+			} else if (ShardWorkerApplication.ARG_PROJECT.equals(args[i])) {
+				projectLocations.add(args[++i]);
+			}
+		}
+
+		ShardCoordinator coordinator = new ShardCoordinator(shardCount, projectLocations).maxAttempts(maxAttempts);
+		if (workDirectory != null) {
+			coordinator.workDirectory(Paths.get(workDirectory));
+		}
+
+		try {
+			coordinator.run(new NullProgressMonitor()).print();
+		} catch (Exception e) {
+			e.printStackTrace();
+			return Integer.valueOf(1);
+		}
+
+		System.out.println("Finish");
+		return IApplication.EXIT_OK;
+	}
+
+	@Override
+	public void stop() {
+		// nothing to do
+	}
+}
@@ -0,0 +1,91 @@
+package tutorialjdt.handlers;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+import org.eclipse.jdt.core.JavaCore;
+
+/**
+ * Headless worker started by {@link ShardCoordinator}. Imports the given projects into
+ * its own workspace, analyzes one shard of their compilation units and writes the
+ * counters to the result file and the findings to findings.bin next to it. The
+ * console report goes to standard output.
+ */
+public class ShardWorkerApplication implements IApplication {
+	public static final String ARG_SHARD_INDEX = "-shardIndex";
+	public static final String ARG_SHARD_COUNT = "-shardCount";
+	public static final String ARG_RESULT = "-result";
+	public static final String ARG_PROJECT = "-project";
+
+	// Written next to the result file
+	public static final String FINDINGS_FILE_NAME = "findings.bin";
+
+	@Override
+	public Object start(IApplicationContext context) throws Exception {
+		String[] args = (String[]) context.getArguments().get(IApplicationContext.APPLICATION_ARGS);
+		int shardIndex = 0;
+		int shardCount = 1;
+		Path resultFile = null;
+		List<String> projectLocations = new ArrayList<>();
+
+		for (int i = 0; i < args.length - 1; i++) {
+			if (ARG_SHARD_INDEX.equals(args[i])) {
+				shardIndex = Integer.parseInt(args[++i]);
+			} else if (ARG_SHARD_COUNT.equals(args[i])) {
+				shardCount = Integer.parseInt(args[++i]);
+			} else if (ARG_RESULT.equals(args[i])) {
+				resultFile = Paths.get(args[++i]);
+			} else if (ARG_PROJECT.equals(args[i])) {
+				projectLocations.add(args[++i]);
+			}
+		}
+
+		if (resultFile == null) {
+			System.err.println("Missing " + ARG_RESULT + " <file>");
+			return Integer.valueOf(1);
+		}
+
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		HeadlessWorkspace.disableAutoBuilding(workspace);
+
+		CompilationUnitAnalyzer analyzer = new CompilationUnitAnalyzer().shard(shardIndex, shardCount);
+
+		for (String location : projectLocations) {
+			IProject project = HeadlessWorkspace.importProject(workspace, location);
+			if (project.isOpen() && project.hasNature(JavaCore.NATURE_ID)) {
+				System.out.println("Project: " + project.getName());
+				analyzer.analyzeJavaProject(JavaCore.create(project));
+			}
+		}
+		System.out.flush();
+
+		try (OutputStream out = Files.newOutputStream(resultFile.resolveSibling(FINDINGS_FILE_NAME))) {
+			analyzer.getFindings().write(out);
+		}
+
+		// Write to a temporary file first so the coordinator never reads a partial result
+		Path tempFile = resultFile.resolveSibling(resultFile.getFileName() + ".tmp");
+		try (OutputStream out = Files.newOutputStream(tempFile)) {
+			analyzer.getCounts().toProperties().store(out, "Shard " + shardIndex + " of " + shardCount);
+		}
+		Files.move(tempFile, resultFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		workspace.save(true, null);
+		return IApplication.EXIT_OK;
+	}
+
+	@Override
+	public void stop() {
+		// nothing to do
+	}
+}
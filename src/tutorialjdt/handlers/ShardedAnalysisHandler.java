@@ -0,0 +1,58 @@
+package tutorialjdt.handlers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.JavaCore;
+
+public class ShardedAnalysisHandler extends AbstractHandler {
+	// Number of worker JVMs, defaults to one per core
+	public static final String SHARDS_PROPERTY = "tutorialjdt.shards";
+
+	@Override
+	public Object execute(ExecutionEvent event) throws ExecutionException {
+		List<String> projectLocations = new ArrayList<>();
+		for (IProject project : ResourcesPlugin.getWorkspace().getRoot().getProjects()) {
+			try {
+				if (project.isOpen() && project.hasNature(JavaCore.NATURE_ID)) {
+					projectLocations.add(project.getLocation().toOSString());
+				}
+			} catch (CoreException e) {
+				e.printStackTrace();
+			}
+		}
+
+		int shardCount = Integer.getInteger(SHARDS_PROPERTY, Runtime.getRuntime().availableProcessors());
+		System.out.println("Analyzing " + projectLocations.size() + " projects in " + shardCount + " shards");
+
+		// The workers can run for minutes, keep the UI responsive
+		Job job = Job.create("Sharded analysis", monitor -> {
+			try {
+				AntipatternCounts counts = new ShardCoordinator(shardCount, projectLocations).run(monitor);
+				counts.print();
+			} catch (IOException e) {
+				throw new CoreException(new Status(IStatus.ERROR, "tutorialjdt", "Sharded analysis failed", e));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new CoreException(new Status(IStatus.CANCEL, "tutorialjdt", "Sharded analysis interrupted", e));
+			}
+
+			System.out.println("Finish");
+		});
+		job.setUser(true);
+		job.schedule();
+
+		return null;
+	}
+
+}
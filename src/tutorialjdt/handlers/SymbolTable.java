@@ -0,0 +1,36 @@
+package tutorialjdt.handlers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Deduplicates strings (paths, package names, messages) into dense int ids
+public class SymbolTable {
+	private final Map<String, Integer> ids = new HashMap<>();
+	private final List<String> symbols = new ArrayList<>();
+
+	public int intern(String symbol) {
+		Integer id = ids.get(symbol);
+		if (id == null) {
+			id = symbols.size();
+			symbols.add(symbol);
+			ids.put(symbol, id);
+		}
+		return id;
+	}
+
+	// -1 if the symbol was never interned
+	public int lookup(String symbol) {
+		Integer id = ids.get(symbol);
+		return id == null ? -1 : id;
+	}
+
+	public String get(int id) {
+		return symbols.get(id);
+	}
+
+	public int size() {
+		return symbols.size();
+	}
+}
@@ -0,0 +1,184 @@
+package tutorialjdt.handlers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Writes a synthetic Java project to disk for benchmarking. Every unit is a small class
+ * with a few ordinary methods; a configurable fraction of them also contains one of the
+ * anti-patterns the detectors look for. The output only depends on the parameters and
+ * the seed, so runs are comparable.
+ */
+public class SyntheticWorkspaceGenerator {
+	private static final int UNITS_PER_PACKAGE = 100;
+
+	private int units = 1000;
+	private double antipatternDensity = 0.2;
+	private int methodsPerUnit = 5;
+	private long seed = 42;
+
+	// Build pattern to define the generator with multiple parameters
+	public SyntheticWorkspaceGenerator units(int units) {
+		this.units = units;
+		return this;
+	}
+
+	// Fraction (0..1) of the units that contain an anti-pattern
+	public SyntheticWorkspaceGenerator antipatternDensity(double antipatternDensity) {
+		this.antipatternDensity = antipatternDensity;
+		return this;
+	}
+
+	public SyntheticWorkspaceGenerator methodsPerUnit(int methodsPerUnit) {
+		this.methodsPerUnit = methodsPerUnit;
+		return this;
+	}
+
+	public SyntheticWorkspaceGenerator seed(long seed) {
+		this.seed = seed;
+		return this;
+	}
+
+	// Returns the number of units that got an anti-pattern
+	public int generate(Path projectDirectory, String projectName) throws IOException {
+		Files.createDirectories(projectDirectory);
+		Files.writeString(projectDirectory.resolve(".project"), projectFile(projectName));
+		Files.writeString(projectDirectory.resolve(".classpath"), classpathFile());
+
+		Random random = new Random(seed);
+		int antipatternUnits = 0;
+		for (int i = 0; i < units; i++) {
+			String packageName = "synthetic.p" + (i / UNITS_PER_PACKAGE);
+			String className = "Unit" + i;
+			int antipattern = -1;
+			if (random.nextDouble() < antipatternDensity) {
+				antipattern = random.nextInt(Antipattern.values().length);
+				antipatternUnits++;
+			}
+
+			Path packageDirectory = projectDirectory.resolve("src").resolve(packageName.replace('.', '/'));
+			Files.createDirectories(packageDirectory);
+			Files.writeString(packageDirectory.resolve(className + ".java"), unitSource(packageName, className, antipattern, random));
+		}
+		return antipatternUnits;
+	}
+
+	private String unitSource(String packageName, String className, int antipattern, Random random) {
+		StringBuilder source = new StringBuilder();
+		source.append("package ").append(packageName).append(";\n\n");
+		source.append("import java.io.IOException;\n");
+		source.append("import java.util.ArrayList;\n");
+		source.append("import java.util.List;\n\n");
+		source.append("/**\n * Generated class. The words try, catch and throws in comments must not matter.\n */\n");
+		source.append("public class ").append(className).append(" {\n");
+		source.append("    private final List<Integer> values = new ArrayList<>();\n");
+		source.append("    private String name = \"try { } catch (Exception e) { }\";\n\n");
+
+		for (int m = 0; m < methodsPerUnit; m++) {
+			int bound = 1 + random.nextInt(100);
+			source.append("    public int compute").append(m).append("(int input) {\n");
+			source.append("        int sum = 0;\n");
+			source.append("        for (int i = 0; i < ").append(bound).append("; i++) {\n");
+			source.append("            if (i % 2 == 0) {\n");
+			source.append("                sum += input * i;\n");
+			source.append("            } else {\n");
+			source.append("                values.add(sum);\n");
+			source.append("            }\n");
+			source.append("        }\n");
+			source.append("        return sum;\n");
+			source.append("    }\n\n");
+		}
+
+		if (antipattern >= 0) {
+			source.append(antipatternSource(Antipattern.values()[antipattern]));
+		}
+		source.append("}\n");
+		return source.toString();
+	}
+
+	private String antipatternSource(Antipattern antipattern) {
+		switch (antipattern) {
+		case THROW_WITHIN_FINALLY:
+			return "    public void close(int input) {\n"
+					+ "        try {\n"
+					+ "            values.add(input);\n"
+					+ "        } finally {\n"
+					+ "            throw new IllegalStateException(name);\n"
+					+ "        }\n"
+					+ "    }\n";
+		case LOG_AND_THROW:
+			return "    public void load(String path) throws IOException {\n"
+					+ "        try {\n"
+					+ "            read(path);\n"
+					+ "        } catch (IOException e) {\n"
+					+ "            System.out.println(\"failed \" + path);\n"
+					+ "            throw e;\n"
+					+ "        }\n"
+					+ "    }\n\n"
+					+ "    private void read(String path) throws IOException {\n"
+					+ "        name = path;\n"
+					+ "    }\n";
+		case THROWS_GENERIC:
+			return "    public void run() throws Exception {\n"
+					+ "        values.clear();\n"
+					+ "    }\n";
+		case THROWS_KITCHEN_SINK:
+			return "    public void process() throws IOException, InterruptedException, CloneNotSupportedException {\n"
+					+ "        values.clear();\n"
+					+ "    }\n";
+		case INCOMPLETE_IMPLEMENTATION:
+			return "    public void parse(String text) {\n"
+					+ "        try {\n"
+					+ "            values.add(Integer.parseInt(text));\n"
+					+ "        } catch (NumberFormatException e) {\n"
+					+ "            // TODO handle this\n"
+					+ "        }\n"
+					+ "    }\n";
+		case NESTED_TRY:
+			return "    public void copy(String text) {\n"
+					+ "        try {\n"
+					+ "            try {\n"
+					+ "                values.add(Integer.parseInt(text));\n"
+					+ "            } catch (NumberFormatException e) {\n"
+					+ "                values.add(0);\n"
+					+ "            }\n"
+					+ "        } catch (RuntimeException e) {\n"
+					+ "            values.clear();\n"
+					+ "        }\n"
+					+ "    }\n";
+		default:
+			return "";
+		}
+	}
+
+	private static String projectFile(String projectName) {
+		return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<projectDescription>\n"
+				+ "\t<name>" + projectName + "</name>\n"
+				+ "\t<comment></comment>\n"
+				+ "\t<projects>\n"
+				+ "\t</projects>\n"
+				+ "\t<buildSpec>\n"
+				+ "\t\t<buildCommand>\n"
+				+ "\t\t\t<name>org.eclipse.jdt.core.javabuilder</name>\n"
+				+ "\t\t\t<arguments>\n"
+				+ "\t\t\t</arguments>\n"
+				+ "\t\t</buildCommand>\n"
+				+ "\t</buildSpec>\n"
+				+ "\t<natures>\n"
+				+ "\t\t<nature>org.eclipse.jdt.core.javanature</nature>\n"
+				+ "\t</natures>\n"
+				+ "</projectDescription>\n";
+	}
+
+	private static String classpathFile() {
+		return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<classpath>\n"
+				+ "\t<classpathentry kind=\"con\" path=\"org.eclipse.jdt.launching.JRE_CONTAINER\"/>\n"
+				+ "\t<classpathentry kind=\"src\" path=\"src\"/>\n"
+				+ "\t<classpathentry kind=\"output\" path=\"bin\"/>\n"
+				+ "</classpath>\n";
+	}
+}
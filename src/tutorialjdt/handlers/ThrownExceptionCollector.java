@@ -0,0 +1,243 @@
+package tutorialjdt.handlers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
+import org.eclipse.jdt.core.dom.CatchClause;
+import org.eclipse.jdt.core.dom.ClassInstanceCreation;
+import org.eclipse.jdt.core.dom.ConstructorInvocation;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.LambdaExpression;
+import org.eclipse.jdt.core.dom.MethodInvocation;
+import org.eclipse.jdt.core.dom.SuperConstructorInvocation;
+import org.eclipse.jdt.core.dom.SuperMethodInvocation;
+import org.eclipse.jdt.core.dom.ThrowStatement;
+import org.eclipse.jdt.core.dom.TryStatement;
+import org.eclipse.jdt.core.dom.Type;
+import org.eclipse.jdt.core.dom.TypeDeclarationStatement;
+import org.eclipse.jdt.core.dom.UnionType;
+import org.eclipse.jdt.core.dom.VariableDeclarationExpression;
+
+/**
+ * Collects the checked exceptions a method body can actually throw, from the resolved
+ * bindings of calls, constructor calls and throw statements. Exceptions caught by an
+ * enclosing try inside the body are left out. Lambdas and local/anonymous classes are
+ * skipped, their exceptions don't escape the method.
+ */
+public class ThrownExceptionCollector extends ASTVisitor {
+	private final List<ITypeBinding> thrown = new ArrayList<>();
+	private boolean unresolved = false;
+
+	// Most general types only, e.g. IOException wins over FileNotFoundException
+	public List<ITypeBinding> getThrownExceptions() {
+		List<ITypeBinding> result = new ArrayList<>();
+		for (ITypeBinding candidate : thrown) {
+			boolean subsumed = false;
+			for (ITypeBinding other : thrown) {
+				if (other != candidate && candidate.isSubTypeCompatible(other) && !candidate.isEqualTo(other)) {
+					subsumed = true;
+					break;
+				}
+			}
+			if (!subsumed) {
+				result.add(candidate);
+			}
+		}
+		return result;
+	}
+
+	// True if some binding could not be resolved, the result is then incomplete
+	public boolean hasUnresolved() {
+		return this.unresolved;
+	}
+
+	public static boolean isUnchecked(ITypeBinding type) {
+		for (ITypeBinding t = type; t != null; t = t.getSuperclass()) {
+			String name = t.getErasure().getQualifiedName();
+			if ("java.lang.RuntimeException".equals(name) || "java.lang.Error".equals(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void add(ITypeBinding type) {
+		if (type == null || type.isRecovered()) {
+			this.unresolved = true;
+			return;
+		}
+		type = type.getErasure();
+		if (isUnchecked(type)) {
+			return;
+		}
+		for (ITypeBinding existing : thrown) {
+			if (existing.isEqualTo(type)) {
+				return;
+			}
+		}
+		thrown.add(type);
+	}
+
+	private void addAll(IMethodBinding method) {
+		if (method == null) {
+			this.unresolved = true;
+			return;
+		}
+		for (ITypeBinding exception : method.getExceptionTypes()) {
+			add(exception);
+		}
+	}
+
+	@Override
+	public boolean visit(MethodInvocation node) {
+		addAll(node.resolveMethodBinding());
+		return true;
+	}
+
+	@Override
+	public boolean visit(SuperMethodInvocation node) {
+		addAll(node.resolveMethodBinding());
+		return true;
+	}
+
+	@Override
+	public boolean visit(ClassInstanceCreation node) {
+		addAll(node.resolveConstructorBinding());
+		// Arguments can throw, the anonymous class body can't
+		if (node.getExpression() != null) {
+			node.getExpression().accept(this);
+		}
+		for (Object argument : node.arguments()) {
+			((Expression) argument).accept(this);
+		}
+		return false;
+	}
+
+	@Override
+	public boolean visit(ConstructorInvocation node) {
+		addAll(node.resolveConstructorBinding());
+		return true;
+	}
+
+	@Override
+	public boolean visit(SuperConstructorInvocation node) {
+		addAll(node.resolveConstructorBinding());
+		return true;
+	}
+
+	@Override
+	public boolean visit(ThrowStatement node) {
+		add(node.getExpression().resolveTypeBinding());
+		return true;
+	}
+
+	@Override
+	public boolean visit(TryStatement node) {
+		// What the try block (and the resources) throw, before the catch clauses
+		ThrownExceptionCollector body = new ThrownExceptionCollector();
+		for (Object resource : node.resources()) {
+			((Expression) resource).accept(body);
+			ITypeBinding resourceType = resourceType((Expression) resource);
+			if (resourceType == null) {
+				body.unresolved = true;
+			} else {
+				addAllCloseExceptions(body, resourceType);
+			}
+		}
+		node.getBody().accept(body);
+		this.unresolved |= body.unresolved;
+
+		for (ITypeBinding exception : body.thrown) {
+			if (!isCaught(exception, node)) {
+				add(exception);
+			}
+		}
+
+		for (Object catchClause : node.catchClauses()) {
+			((CatchClause) catchClause).getBody().accept(this);
+		}
+		if (node.getFinally() != null) {
+			node.getFinally().accept(this);
+		}
+		return false;
+	}
+
+	private static ITypeBinding resourceType(Expression resource) {
+		if (resource instanceof VariableDeclarationExpression) {
+			return ((VariableDeclarationExpression) resource).getType().resolveBinding();
+		}
+		return resource.resolveTypeBinding();
+	}
+
+	// try-with-resources calls close(), which may declare checked exceptions
+	private static void addAllCloseExceptions(ThrownExceptionCollector collector, ITypeBinding type) {
+		IMethodBinding close = findClose(type);
+		if (close == null) {
+			collector.unresolved = true;
+		} else {
+			collector.addAll(close);
+		}
+	}
+
+	private static IMethodBinding findClose(ITypeBinding type) {
+		if (type == null) {
+			return null;
+		}
+		for (IMethodBinding method : type.getDeclaredMethods()) {
+			if ("close".equals(method.getName()) && method.getParameterTypes().length == 0) {
+				return method;
+			}
+		}
+		IMethodBinding close = findClose(type.getSuperclass());
+		if (close != null) {
+			return close;
+		}
+		for (ITypeBinding superInterface : type.getInterfaces()) {
+			close = findClose(superInterface);
+			if (close != null) {
+				return close;
+			}
+		}
+		return null;
+	}
+
+	private static boolean isCaught(ITypeBinding exception, TryStatement node) {
+		for (Object catchClause : node.catchClauses()) {
+			Type catchType = ((CatchClause) catchClause).getException().getType();
+			List<Type> caughtTypes = new ArrayList<>();
+			if (catchType instanceof UnionType) {
+				for (Object type : ((UnionType) catchType).types()) {
+					caughtTypes.add((Type) type);
+				}
+			} else {
+				caughtTypes.add(catchType);
+			}
+			for (Type caught : caughtTypes) {
+				ITypeBinding caughtBinding = caught.resolveBinding();
+				if (caughtBinding != null && exception.isSubTypeCompatible(caughtBinding)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean visit(LambdaExpression node) {
+		return false;
+	}
+
+	@Override
+	public boolean visit(AnonymousClassDeclaration node) {
+		return false;
+	}
+
+	@Override
+	public boolean visit(TypeDeclarationStatement node) {
+		return false;
+	}
+}
@@ -18,11 +18,10 @@ import org.eclipse.jdt.core.dom.MethodInvocation;
 import org.eclipse.jdt.core.dom.Statement;
 import org.eclipse.jdt.core.dom.ThrowStatement;
 
-public class TryVisitor extends ASTVisitor {
+public class TryVisitor extends AntipatternVisitor<TryVisitor> {
     
     private int throwWithinFinallyCounter = 0;
     private int logAndThrowCounter = 0;
-    private ICompilationUnit unit;
     
     public int getThrowWithinFinallyCount() {
     	return this.throwWithinFinallyCounter;
@@ -33,7 +32,7 @@ public class TryVisitor extends ASTVisitor {
     }
     
     public TryVisitor(ICompilationUnit unit) {
-    	this.unit = unit;
+    	super(unit);
     }
 	
     private String getLocation(int startPosition) {
@@ -60,19 +59,11 @@ public class TryVisitor extends ASTVisitor {
             
             if (finder.hasNestedTry()) {
             	this.throwWithinFinallyCounter += 1;
-                System.out.println("[ANTIPATTERN WARNING] 'Throw within Finally' anti-pattern detected: " + getLocation(node.getStartPosition()) + "\n" + node.toString()); 
-                System.out.println("----");
+            	report(Antipattern.THROW_WITHIN_FINALLY, node, () -> "[ANTIPATTERN WARNING] 'Throw within Finally' anti-pattern detected: " + getLocation(node.getStartPosition()) + "\n" + node.toString());
             }
         }
         
-        if (node.getBody() != null) {
-            node.getBody().accept(this); // Visit the try block
-        }
-
-//        for (Object catchClause : node.catchClauses()) {
-//            ((CatchClause) catchClause).accept(this); // Visit each catch clause
-//        }
-        
+        // The default traversal visits the try block, the catch clauses and the finally block once each
         return super.visit(node);
     }
     
@@ -113,9 +104,8 @@ public class TryVisitor extends ASTVisitor {
                     if (stmt instanceof IfStatement) {
                         if (containsLogAndThrowInSameBranch((IfStatement) stmt)) {
                             this.logAndThrowCounter += 1;
-                            System.out.println("[ANTIPATTERN WARNING] 'Log and Throw' anti-pattern detected: " 
+                            report(Antipattern.LOG_AND_THROW, node, () -> "[ANTIPATTERN WARNING] 'Log and Throw' anti-pattern detected: " 
                                 + getLocation(node.getStartPosition()) + "\n" + node.toString());
-                            System.out.println("----");
                         }
                     }
                 }
@@ -123,9 +113,8 @@ public class TryVisitor extends ASTVisitor {
 
             if (hasLogging && hasThrow) {
                 this.logAndThrowCounter += 1;
-                System.out.println("[ANTIPATTERN WARNING] 'Log and Throw' anti-pattern detected: " 
+                report(Antipattern.LOG_AND_THROW, node, () -> "[ANTIPATTERN WARNING] 'Log and Throw' anti-pattern detected: " 
                     + getLocation(node.getStartPosition()) + "\n" + node.toString());
-                System.out.println("----");
             }
         }
         return super.visit(node);        